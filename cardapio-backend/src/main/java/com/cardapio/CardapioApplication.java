@@ -2,12 +2,16 @@ package com.cardapio;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class CardapioApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(CardapioApplication.class, args);
+        SpringApplication application = new SpringApplication(CardapioApplication.class);
+        // Registra a duração de cada etapa da inicialização (ver RelatorioInicializacao e /actuator/startup)
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,50 @@
+package com.cardapio.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Verdadeiro com {@code spring.threads.virtual.enabled} em Java 21+, o mesmo critério que o Spring Boot usa
+     * para o Tomcat. Em Java 17 a propriedade é ignorada e tudo continua em threads de plataforma.
+     */
+    public static boolean threadsVirtuaisAtivas(boolean habilitadas) {
+        return habilitadas && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    // Pool usado pelos ouvintes de eventos de domínio (notificações após o commit)
+    @Bean(name = "eventosExecutor")
+    public Executor eventosExecutor(@Value("${cardapio.eventos.threads:2}") int threads,
+                                    @Value("${cardapio.eventos.capacidade-fila:1000}") int capacidadeFila,
+                                    @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        if (threadsVirtuaisAtivas(threadsVirtuais)) {
+            // Uma thread virtual por notificação, até capacidadeFila simultâneas; acima disso a tarefa é rejeitada
+            // como no pool de plataforma, sem nunca bloquear a thread que acabou de fazer o commit
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("eventos-").getVirtualThreadFactory());
+            executor.setCorePoolSize(capacidadeFila);
+            executor.setMaxPoolSize(capacidadeFila);
+            executor.setQueueCapacity(0);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.initialize();
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("eventos-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cardapio.config;
+
+import org.flywaydb.core.api.output.MigrateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    // Migra normalmente, registrando quantas migrações foram aplicadas e quanto tempo levaram
+    @Bean
+    public FlywayMigrationStrategy estrategiaMigracao() {
+        return flyway -> {
+            long inicio = System.nanoTime();
+            MigrateResult resultado = flyway.migrate();
+            long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Esquema na versão {}: {} migração(ões) aplicada(s) em {} ms",
+                    flyway.info().current() != null ? flyway.info().current().getVersion() : "vazia",
+                    resultado.migrationsExecuted, duracaoMs);
+        };
+    }
+}
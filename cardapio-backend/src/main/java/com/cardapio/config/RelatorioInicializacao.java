@@ -0,0 +1,73 @@
+package com.cardapio.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Ao fim da inicialização, registra quanto do tempo total foi gasto com o esquema do banco:
+ * migrações do Flyway e criação do EntityManagerFactory (que inclui a validação do mapeamento).
+ * O detalhamento completo fica em /actuator/startup.
+ */
+@Component
+public class RelatorioInicializacao {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioInicializacao.class);
+
+    private static final String ETAPA_CRIACAO_BEAN = "spring.beans.instantiate";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrar(ApplicationReadyEvent evento) {
+        if (!(evento.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+
+        TimelineEvent migracoes = null;
+        TimelineEvent jpa = null;
+        for (TimelineEvent etapa : startup.getBufferedTimeline().getEvents()) {
+            if (!ETAPA_CRIACAO_BEAN.equals(etapa.getStartupStep().getName())) {
+                continue;
+            }
+            String bean = nomeDoBean(etapa.getStartupStep());
+            if ("flywayInitializer".equals(bean)) {
+                migracoes = etapa;
+            } else if ("entityManagerFactory".equals(bean)) {
+                jpa = etapa;
+            }
+        }
+
+        Duration tempoMigracoes = migracoes != null ? migracoes.getDuration() : Duration.ZERO;
+        Duration tempoJpa = jpa != null ? jpa.getDuration() : Duration.ZERO;
+        // O Flyway costuma ser criado como dependência do EntityManagerFactory, dentro da mesma etapa
+        if (migracoes != null && jpa != null && contem(jpa, migracoes)) {
+            tempoJpa = tempoJpa.minus(tempoMigracoes);
+        }
+
+        log.info("Inicialização concluída em {} ms; esquema: migrações {} ms, JPA/validação {} ms",
+                evento.getTimeTaken() != null ? evento.getTimeTaken().toMillis() : -1,
+                tempoMigracoes.toMillis(), tempoJpa.toMillis());
+    }
+
+    private static String nomeDoBean(StartupStep etapa) {
+        for (StartupStep.Tag tag : etapa.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static boolean contem(TimelineEvent externa, TimelineEvent interna) {
+        Instant inicio = externa.getStartTime();
+        Instant fim = externa.getEndTime();
+        return !interna.getStartTime().isBefore(inicio) && !interna.getEndTime().isAfter(fim);
+    }
+}
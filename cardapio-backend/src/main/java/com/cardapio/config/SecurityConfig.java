@@ -72,8 +72,12 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/pedidos").permitAll()
                         .requestMatchers(HttpMethod.GET, "/pedidos/{id}").permitAll()
 
+                        // Sondas do balanceador e do orquestrador, que não têm token; só o status, sem detalhes
+                        .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+
                         // Endpoints do administrador
                         .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Endpoints da cozinha
                         .requestMatchers("/cozinha/**").hasRole("COZINHA")
@@ -1,19 +1,28 @@
 package com.cardapio.controller;
 
 import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.dto.JanelaPedidosDTO;
 import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.RelatorioVendasDTO;
+import com.cardapio.service.ExportadorPedidos;
 import com.cardapio.service.MenuService;
 import com.cardapio.service.PedidoService;
+import com.cardapio.service.QuadroPedidosAtivos;
+import com.cardapio.service.VendasConsolidadasService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +40,15 @@ public class AdminController {
     @Autowired
     private PedidoService pedidoService;
     
+    @Autowired
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+    
+    @Autowired
+    private VendasConsolidadasService vendasConsolidadasService;
+    
+    @Autowired
+    private ExportadorPedidos exportadorPedidos;
+    
     // Gerenciamento do cardápio
     @GetMapping("/cardapio")
     public ResponseEntity<List<ItemCardapioDTO>> listarTodosItens() {
@@ -93,23 +111,81 @@ public class AdminController {
         return ResponseEntity.ok(pedidos);
     }
     
+    // Navegação por cursor: sem OFFSET nem contagem (a menos que contar=true); "proximo" leva à página seguinte
+    @GetMapping("/pedidos/cursor")
+    public ResponseEntity<JanelaPedidosDTO> listarPedidosPorCursor(
+            @RequestParam(required = false) String apos,
+            @RequestParam(defaultValue = "20") int tamanho,
+            @RequestParam(defaultValue = "false") boolean contar,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim) {
+        
+        JanelaPedidosDTO janela = pedidoService.listarPedidosPorCursor(inicio, fim, apos, tamanho, contar);
+        return ResponseEntity.ok(janela);
+    }
+    
     @GetMapping("/pedidos/{id}")
     public ResponseEntity<PedidoDTO> buscarPedidoPorId(@PathVariable Long id) {
         PedidoDTO pedido = pedidoService.buscarPorId(id);
         return ResponseEntity.ok(pedido);
     }
     
+    @GetMapping("/pedidos/auditoria-totais")
+    public ResponseEntity<Map<String, Object>> auditarTotaisPedidos() {
+        Map<String, Object> auditoria = new HashMap<>();
+        auditoria.put("pedidosDivergentes", pedidoService.auditarTotais());
+        
+        return ResponseEntity.ok(auditoria);
+    }
+    
+    // Quadro de pedidos ativos em memória
+    @GetMapping("/quadro/verificar")
+    public ResponseEntity<Map<String, Object>> verificarQuadro() {
+        Map<String, Object> verificacao = new HashMap<>();
+        verificacao.put("pedidosAtivos", quadroPedidosAtivos.contarPedidos());
+        verificacao.put("divergencias", quadroPedidosAtivos.verificar());
+        verificacao.put("recargasPorDivergencia", quadroPedidosAtivos.getRecargasPorDivergencia());
+        
+        return ResponseEntity.ok(verificacao);
+    }
+    
+    @PostMapping("/quadro/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirQuadro() {
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("pedidosAtivos", quadroPedidosAtivos.reconstruir());
+        
+        return ResponseEntity.ok(resultado);
+    }
+    
     // Relatórios e estatísticas
     @GetMapping("/relatorios/hoje")
     public ResponseEntity<Map<String, Object>> relatorioHoje() {
+        RelatorioVendasDTO vendas = vendasConsolidadasService.relatorioDoDia(LocalDate.now());
+        
         Map<String, Object> relatorio = new HashMap<>();
-        relatorio.put("totalPedidos", pedidoService.contarPedidosHoje());
-        relatorio.put("totalVendas", pedidoService.calcularVendasHoje());
+        relatorio.put("totalPedidos", vendas.getTotalPedidos());
+        relatorio.put("pedidosEntregues", vendas.getPedidosEntregues());
+        relatorio.put("totalVendas", vendas.getTotalVendas());
+        relatorio.put("pedidosPorHora", vendas.getPedidosPorHora());
+        relatorio.put("vendasPorHora", vendas.getVendasPorHora());
+        relatorio.put("quantidadesPorItem", vendas.getQuantidadesPorItem());
         relatorio.put("data", LocalDateTime.now());
         
         return ResponseEntity.ok(relatorio);
     }
     
+    // Recalcula os contadores de vendas dos dias em [inicio, fim) a partir dos pedidos gravados
+    @PostMapping("/relatorios/consolidado/reconstruir")
+    public ResponseEntity<Map<String, Object>> reconstruirVendasConsolidadas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("horasRecalculadas", vendasConsolidadasService.reconstruir(inicio, fim));
+        
+        return ResponseEntity.ok(resultado);
+    }
+    
     @GetMapping("/relatorios/periodo")
     public ResponseEntity<Page<PedidoDTO>> relatorioPorPeriodo(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
@@ -119,5 +195,25 @@ public class AdminController {
         Page<PedidoDTO> pedidos = pedidoService.listarPedidosPorPeriodo(inicio, fim, pageable);
         return ResponseEntity.ok(pedidos);
     }
+    
+    // Período inteiro em uma única resposta, sem paginação; fim exclusivo
+    @GetMapping("/relatorios/periodo/exportar")
+    public void exportarPorPeriodo(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "csv") String formato,
+            HttpServletResponse response) throws IOException {
+        
+        ExportadorPedidos.Formato formatoExportacao = ExportadorPedidos.Formato.deParametro(formato);
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+        
+        response.setContentType(formatoExportacao.getTipoConteudo());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"pedidos." + formatoExportacao.getExtensao() + "\"");
+        exportadorPedidos.exportar(inicio, fim, formatoExportacao, response.getOutputStream());
+    }
 }
 
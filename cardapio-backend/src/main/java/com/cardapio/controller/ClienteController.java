@@ -2,11 +2,17 @@ package com.cardapio.controller;
 
 import com.cardapio.dto.ItemCardapioDTO;
 import com.cardapio.dto.PedidoDTO;
-import com.cardapio.service.MenuService;
+import com.cardapio.service.BuscaCardapio;
+import com.cardapio.service.CardapioRespostaCache;
+import com.cardapio.service.CardapioRespostaCache.CardapioSerializado;
+import com.cardapio.service.IdempotenciaPedidos;
 import com.cardapio.service.PedidoService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -17,27 +23,72 @@ import java.util.List;
 public class ClienteController {
     
     @Autowired
-    private MenuService menuService;
+    private PedidoService pedidoService;
     
     @Autowired
-    private PedidoService pedidoService;
+    private CardapioRespostaCache cardapioRespostaCache;
+    
+    @Autowired
+    private BuscaCardapio buscaCardapio;
+    
+    @Autowired
+    private IdempotenciaPedidos idempotenciaPedidos;
     
-    @GetMapping("/cardapio")
-    public ResponseEntity<List<ItemCardapioDTO>> listarCardapio() {
-        List<ItemCardapioDTO> cardapio = menuService.listarCardapioAtivo();
-        return ResponseEntity.ok(cardapio);
+    // Endpoint mais acessado: responde com bytes pré-serializados e 304 quando o ETag do cliente ainda é válido
+    @GetMapping(value = "/cardapio", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> listarCardapio(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        
+        CardapioSerializado cardapio = cardapioRespostaCache.obter();
+        boolean gzip = CardapioRespostaCache.aceitaGzip(acceptEncoding);
+        
+        if (cardapio.correspondeA(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(gzip ? cardapio.getEtagGzip() : cardapio.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        
+        if (gzip) {
+            return resposta.eTag(cardapio.getEtagGzip())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(cardapio.getJsonGzip());
+        }
+        return resposta.eTag(cardapio.getEtag()).body(cardapio.getJson());
     }
     
     @GetMapping("/cardapio/buscar")
-    public ResponseEntity<List<ItemCardapioDTO>> buscarItens(@RequestParam String nome) {
-        List<ItemCardapioDTO> itens = menuService.buscarPorNome(nome);
+    public ResponseEntity<List<ItemCardapioDTO>> buscarItens(@RequestParam String nome,
+                                                             @RequestParam(defaultValue = "50") int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite da busca deve ser positivo");
+        }
+        // Sem acentos nem diferença de maiúsculas, em nome e descrição, mais relevantes primeiro
+        List<ItemCardapioDTO> itens = buscaCardapio.buscar(nome, limite);
         return ResponseEntity.ok(itens);
     }
     
+    // Com Idempotency-Key, reenvios do mesmo pedido devolvem o pedido já criado (Idempotent-Replayed: true)
     @PostMapping("/pedidos")
-    public ResponseEntity<PedidoDTO> criarPedido(@Valid @RequestBody PedidoDTO pedidoDTO) {
-        PedidoDTO pedidoCriado = pedidoService.criarPedido(pedidoDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(pedidoCriado);
+    public ResponseEntity<PedidoDTO> criarPedido(
+            @Valid @RequestBody PedidoDTO pedidoDTO,
+            @RequestHeader(value = IdempotenciaPedidos.CABECALHO, required = false) String chaveIdempotencia) {
+        if (chaveIdempotencia == null) {
+            PedidoDTO pedidoCriado = pedidoService.criarPedido(pedidoDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(pedidoCriado);
+        }
+        
+        IdempotenciaPedidos.Resultado resultado = idempotenciaPedidos.criar(chaveIdempotencia, pedidoDTO);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", Boolean.toString(resultado.isRepetido()))
+                .body(resultado.getPedido());
     }
     
     @GetMapping("/pedidos/{id}")
@@ -47,8 +98,12 @@ public class ClienteController {
     }
     
     @GetMapping("/pedidos/mesa/{mesa}")
-    public ResponseEntity<List<PedidoDTO>> listarPedidosPorMesa(@PathVariable String mesa) {
-        List<PedidoDTO> pedidos = pedidoService.listarPedidosPorMesa(mesa);
+    public ResponseEntity<List<PedidoDTO>> listarPedidosPorMesa(@PathVariable String mesa,
+                                                                @RequestParam(defaultValue = "false") boolean ativos) {
+        // ativos=true consulta apenas os pedidos não entregues, servidos pelo quadro em memória
+        List<PedidoDTO> pedidos = ativos
+                ? pedidoService.listarPedidosAtivosPorMesa(mesa)
+                : pedidoService.listarPedidosPorMesa(mesa);
         return ResponseEntity.ok(pedidos);
     }
 }
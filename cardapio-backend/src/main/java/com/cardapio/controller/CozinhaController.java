@@ -1,6 +1,8 @@
 package com.cardapio.controller;
 
 import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.ResultadoStatusPedidoDTO;
+import com.cardapio.dto.StatusLoteRequest;
 import com.cardapio.dto.StatusUpdateRequest;
 import com.cardapio.model.PedidoStatus;
 import com.cardapio.service.PedidoService;
@@ -24,8 +26,11 @@ public class CozinhaController {
     private PedidoService pedidoService;
     
     @GetMapping("/pedidos/stream")
-    public SseEmitter receberPedidosStream() {
-        return pedidoService.criarConexaoCozinha();
+    public SseEmitter receberPedidosStream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        // O parâmetro de query atende clientes que não conseguem enviar o cabeçalho
+        return pedidoService.criarConexaoCozinha(lastEventId != null ? lastEventId : lastEventIdParam);
     }
     
     @GetMapping("/pedidos/novos")
@@ -53,20 +58,29 @@ public class CozinhaController {
         return ResponseEntity.ok(pedidoAtualizado);
     }
     
+    // As ações de um passo já sabem o status de origem: a troca vai direto ao UPDATE condicional
     @PatchMapping("/pedidos/{id}/iniciar-preparo")
     public ResponseEntity<PedidoDTO> iniciarPreparo(@PathVariable Long id) {
-        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.EM_PREPARO);
+        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.EM_PREPARO, PedidoStatus.RECEBIDO);
         PedidoDTO pedidoAtualizado = pedidoService.atualizarStatusPedido(id, statusRequest);
         return ResponseEntity.ok(pedidoAtualizado);
     }
     
     @PatchMapping("/pedidos/{id}/finalizar")
     public ResponseEntity<PedidoDTO> finalizarPedido(@PathVariable Long id) {
-        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.PRONTO);
+        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO);
         PedidoDTO pedidoAtualizado = pedidoService.atualizarStatusPedido(id, statusRequest);
         return ResponseEntity.ok(pedidoAtualizado);
     }
 
+    // Vários pedidos de uma vez (ex.: uma comanda inteira): uma transação, um UPDATE e um único evento SSE;
+    // a resposta traz o resultado de cada pedido
+    @PatchMapping("/pedidos/lote/status")
+    public ResponseEntity<List<ResultadoStatusPedidoDTO>> atualizarStatusEmLote(
+            @Valid @RequestBody StatusLoteRequest request) {
+        return ResponseEntity.ok(pedidoService.atualizarStatusEmLote(request));
+    }
+
     @GetMapping("/pedidos")
     public ResponseEntity<List<PedidoDTO>> listarPedidosParaCozinha() {
         // Lista de status que são relevantes para a tela da cozinha
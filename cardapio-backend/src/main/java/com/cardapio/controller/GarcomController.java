@@ -22,8 +22,11 @@ public class GarcomController {
     private PedidoService pedidoService;
     
     @GetMapping("/pedidos/stream")
-    public SseEmitter receberNotificacoesStream() {
-        return pedidoService.criarConexaoGarcom();
+    public SseEmitter receberNotificacoesStream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        // O parâmetro de query atende clientes que não conseguem enviar o cabeçalho
+        return pedidoService.criarConexaoGarcom(lastEventId != null ? lastEventId : lastEventIdParam);
     }
     
     @GetMapping("/pedidos/prontos")
@@ -38,16 +41,21 @@ public class GarcomController {
         return ResponseEntity.ok(pedido);
     }
     
+    // Só pedidos prontos são entregues; repetir o toque devolve o pedido sem nova notificação
     @PatchMapping("/pedidos/{id}/entregar")
     public ResponseEntity<PedidoDTO> marcarComoEntregue(@PathVariable Long id) {
-        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.ENTREGUE);
+        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.ENTREGUE, PedidoStatus.PRONTO);
         PedidoDTO pedidoAtualizado = pedidoService.atualizarStatusPedido(id, statusRequest);
         return ResponseEntity.ok(pedidoAtualizado);
     }
     
     @GetMapping("/pedidos/mesa/{mesa}")
-    public ResponseEntity<List<PedidoDTO>> listarPedidosPorMesa(@PathVariable String mesa) {
-        List<PedidoDTO> pedidos = pedidoService.listarPedidosPorMesa(mesa);
+    public ResponseEntity<List<PedidoDTO>> listarPedidosPorMesa(@PathVariable String mesa,
+                                                                @RequestParam(defaultValue = "false") boolean ativos) {
+        // ativos=true consulta apenas os pedidos não entregues, servidos pelo quadro em memória
+        List<PedidoDTO> pedidos = ativos
+                ? pedidoService.listarPedidosAtivosPorMesa(mesa)
+                : pedidoService.listarPedidosPorMesa(mesa);
         return ResponseEntity.ok(pedidos);
     }
 }
@@ -0,0 +1,46 @@
+package com.cardapio.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de pedidos (mais recentes primeiro): data de criação e ID do último pedido entregue
+ * ao cliente. Trafega como token opaco; a página seguinte começa logo depois dela.
+ */
+public class CursorPedido {
+
+    private final LocalDateTime dataCriacao;
+    private final Long id;
+
+    public CursorPedido(LocalDateTime dataCriacao, Long id) {
+        this.dataCriacao = dataCriacao;
+        this.id = id;
+    }
+
+    public String codificar() {
+        String valor = dataCriacao + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPedido decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            return new CursorPedido(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Token de continuação inválido");
+        }
+    }
+
+    // Getters
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
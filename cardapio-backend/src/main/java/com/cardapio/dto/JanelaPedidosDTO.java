@@ -0,0 +1,49 @@
+package com.cardapio.dto;
+
+import java.util.List;
+
+public class JanelaPedidosDTO {
+
+    private List<PedidoDTO> pedidos;
+
+    // Token para a próxima página; nulo na última
+    private String proximo;
+
+    // Preenchido somente quando solicitado, pois exige uma contagem
+    private Long total;
+
+    // Construtores
+    public JanelaPedidosDTO() {
+    }
+
+    public JanelaPedidosDTO(List<PedidoDTO> pedidos, String proximo, Long total) {
+        this.pedidos = pedidos;
+        this.proximo = proximo;
+        this.total = total;
+    }
+
+    // Getters e Setters
+    public List<PedidoDTO> getPedidos() {
+        return pedidos;
+    }
+
+    public void setPedidos(List<PedidoDTO> pedidos) {
+        this.pedidos = pedidos;
+    }
+
+    public String getProximo() {
+        return proximo;
+    }
+
+    public void setProximo(String proximo) {
+        this.proximo = proximo;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
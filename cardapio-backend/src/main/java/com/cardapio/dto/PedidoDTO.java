@@ -31,6 +31,10 @@ public class PedidoDTO {
 
     private BigDecimal valorTotal;
 
+    private Integer quantidadeItens;
+
+    private Long versao;
+
     // Construtores
     public PedidoDTO() {
     }
@@ -137,4 +141,20 @@ public class PedidoDTO {
     public void setValorTotal(BigDecimal valorTotal) {
         this.valorTotal = valorTotal;
     }
+
+    public Integer getQuantidadeItens() {
+        return quantidadeItens;
+    }
+
+    public void setQuantidadeItens(Integer quantidadeItens) {
+        this.quantidadeItens = quantidadeItens;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -0,0 +1,142 @@
+package com.cardapio.dto;
+
+import com.cardapio.model.PedidoStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Linha plana (cabeçalho do pedido + item) lida diretamente do banco para os quadros
+ * da cozinha e do garçom, sem passar por entidades gerenciadas.
+ */
+public class PedidoLinhaQuadro {
+
+    private final Long pedidoId;
+    private final String mesa;
+    private final PedidoStatus status;
+    private final LocalDateTime dataCriacao;
+    private final LocalDateTime dataAtualizacao;
+    private final String observacoes;
+    private final BigDecimal valorTotal;
+    private final Integer quantidadeItens;
+    private final Long versao;
+    private final Long linhaId;
+    private final Long itemId;
+    private final String nomeItem;
+    private final Integer quantidade;
+    private final BigDecimal precoUnitario;
+    private final String observacoesItem;
+
+    public PedidoLinhaQuadro(Long pedidoId, String mesa, PedidoStatus status, LocalDateTime dataCriacao,
+            LocalDateTime dataAtualizacao, String observacoes, BigDecimal valorTotal, Integer quantidadeItens, Long versao,
+            Long linhaId, Long itemId, String nomeItem, Integer quantidade, BigDecimal precoUnitario,
+            String observacoesItem) {
+        this.pedidoId = pedidoId;
+        this.mesa = mesa;
+        this.status = status;
+        this.dataCriacao = dataCriacao;
+        this.dataAtualizacao = dataAtualizacao;
+        this.observacoes = observacoes;
+        this.valorTotal = valorTotal;
+        this.quantidadeItens = quantidadeItens;
+        this.versao = versao;
+        this.linhaId = linhaId;
+        this.itemId = itemId;
+        this.nomeItem = nomeItem;
+        this.quantidade = quantidade;
+        this.precoUnitario = precoUnitario;
+        this.observacoesItem = observacoesItem;
+    }
+
+    // Agrupa as linhas (já ordenadas por pedido) em DTOs, preservando a ordem da consulta
+    public static List<PedidoDTO> agruparPorPedido(List<PedidoLinhaQuadro> linhas) {
+        Map<Long, PedidoDTO> pedidos = new LinkedHashMap<>();
+        for (PedidoLinhaQuadro linha : linhas) {
+            PedidoDTO pedido = pedidos.computeIfAbsent(linha.getPedidoId(), id -> linha.paraPedido());
+            if (linha.getLinhaId() != null) {
+                pedido.getItens().add(linha.paraItem());
+            }
+        }
+        return new ArrayList<>(pedidos.values());
+    }
+
+    // Cabeçalho do pedido desta linha, ainda sem itens
+    public PedidoDTO paraPedido() {
+        PedidoDTO pedido = new PedidoDTO(pedidoId, mesa, new ArrayList<>(), status, dataCriacao, dataAtualizacao,
+                observacoes);
+        pedido.setValorTotal(valorTotal);
+        pedido.setQuantidadeItens(quantidadeItens);
+        pedido.setVersao(versao);
+        return pedido;
+    }
+
+    // Item desta linha; pedidos sem itens chegam com linhaId nulo (LEFT JOIN)
+    public PedidoItemDTO paraItem() {
+        return new PedidoItemDTO(linhaId, itemId, nomeItem, quantidade, precoUnitario, observacoesItem);
+    }
+
+    // Getters
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+    public String getMesa() {
+        return mesa;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public LocalDateTime getDataAtualizacao() {
+        return dataAtualizacao;
+    }
+
+    public String getObservacoes() {
+        return observacoes;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public Integer getQuantidadeItens() {
+        return quantidadeItens;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public Long getLinhaId() {
+        return linhaId;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public String getNomeItem() {
+        return nomeItem;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public BigDecimal getPrecoUnitario() {
+        return precoUnitario;
+    }
+
+    public String getObservacoesItem() {
+        return observacoesItem;
+    }
+}
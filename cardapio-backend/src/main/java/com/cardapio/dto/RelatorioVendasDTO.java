@@ -0,0 +1,90 @@
+package com.cardapio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RelatorioVendasDTO {
+
+    private LocalDate dia;
+
+    private long totalPedidos;
+
+    private long pedidosEntregues;
+
+    private BigDecimal totalVendas = BigDecimal.ZERO;
+
+    // Somente as horas com movimento
+    private Map<Integer, Long> pedidosPorHora = new LinkedHashMap<>();
+
+    private Map<Integer, BigDecimal> vendasPorHora = new LinkedHashMap<>();
+
+    // Quantidade entregue por ID de item do cardápio
+    private Map<Long, Long> quantidadesPorItem = new LinkedHashMap<>();
+
+    // Construtores
+    public RelatorioVendasDTO() {
+    }
+
+    public RelatorioVendasDTO(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    // Getters e Setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public void setDia(LocalDate dia) {
+        this.dia = dia;
+    }
+
+    public long getTotalPedidos() {
+        return totalPedidos;
+    }
+
+    public void setTotalPedidos(long totalPedidos) {
+        this.totalPedidos = totalPedidos;
+    }
+
+    public long getPedidosEntregues() {
+        return pedidosEntregues;
+    }
+
+    public void setPedidosEntregues(long pedidosEntregues) {
+        this.pedidosEntregues = pedidosEntregues;
+    }
+
+    public BigDecimal getTotalVendas() {
+        return totalVendas;
+    }
+
+    public void setTotalVendas(BigDecimal totalVendas) {
+        this.totalVendas = totalVendas;
+    }
+
+    public Map<Integer, Long> getPedidosPorHora() {
+        return pedidosPorHora;
+    }
+
+    public void setPedidosPorHora(Map<Integer, Long> pedidosPorHora) {
+        this.pedidosPorHora = pedidosPorHora;
+    }
+
+    public Map<Integer, BigDecimal> getVendasPorHora() {
+        return vendasPorHora;
+    }
+
+    public void setVendasPorHora(Map<Integer, BigDecimal> vendasPorHora) {
+        this.vendasPorHora = vendasPorHora;
+    }
+
+    public Map<Long, Long> getQuantidadesPorItem() {
+        return quantidadesPorItem;
+    }
+
+    public void setQuantidadesPorItem(Map<Long, Long> quantidadesPorItem) {
+        this.quantidadesPorItem = quantidadesPorItem;
+    }
+}
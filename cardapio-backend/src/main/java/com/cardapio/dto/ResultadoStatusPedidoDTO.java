@@ -0,0 +1,43 @@
+package com.cardapio.dto;
+
+/**
+ * Resultado de um pedido em uma mudança de status em lote: o pedido no novo status ou o motivo da falha.
+ */
+public class ResultadoStatusPedidoDTO {
+
+    private final Long id;
+    private final boolean sucesso;
+    private final PedidoDTO pedido;
+    private final String erro;
+
+    private ResultadoStatusPedidoDTO(Long id, boolean sucesso, PedidoDTO pedido, String erro) {
+        this.id = id;
+        this.sucesso = sucesso;
+        this.pedido = pedido;
+        this.erro = erro;
+    }
+
+    public static ResultadoStatusPedidoDTO sucesso(PedidoDTO pedido) {
+        return new ResultadoStatusPedidoDTO(pedido.getId(), true, pedido, null);
+    }
+
+    public static ResultadoStatusPedidoDTO falha(Long id, String erro) {
+        return new ResultadoStatusPedidoDTO(id, false, null, erro);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public PedidoDTO getPedido() {
+        return pedido;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+}
@@ -0,0 +1,47 @@
+package com.cardapio.dto;
+
+import java.util.Objects;
+
+/**
+ * Quantidade e somas de versões e IDs dos itens ativos do cardápio. Toda inclusão, alteração, ativação ou
+ * remoção altera o resumo, então comparar o do banco com o do cardápio em memória revela mudanças feitas
+ * por outra instância.
+ */
+public class ResumoCardapio {
+
+    private final long quantidade;
+    private final long somaVersoes;
+    private final long somaIds;
+
+    // Somas chegam nulas do banco quando não há itens ativos
+    public ResumoCardapio(Long quantidade, Long somaVersoes, Long somaIds) {
+        this.quantidade = quantidade != null ? quantidade : 0;
+        this.somaVersoes = somaVersoes != null ? somaVersoes : 0;
+        this.somaIds = somaIds != null ? somaIds : 0;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        if (this == outro) {
+            return true;
+        }
+        if (!(outro instanceof ResumoCardapio resumo)) {
+            return false;
+        }
+        return quantidade == resumo.quantidade && somaVersoes == resumo.somaVersoes && somaIds == resumo.somaIds;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(quantidade, somaVersoes, somaIds);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoCardapio{quantidade=" + quantidade + ", somaVersoes=" + somaVersoes + ", somaIds=" + somaIds + "}";
+    }
+}
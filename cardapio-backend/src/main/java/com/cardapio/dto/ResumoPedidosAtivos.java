@@ -0,0 +1,58 @@
+package com.cardapio.dto;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Quantidade e somas de versões e IDs dos pedidos ativos. Toda criação ou mudança de status altera o resumo,
+ * então comparar o do banco com o do quadro em memória revela mudanças feitas por outra instância.
+ */
+public class ResumoPedidosAtivos {
+
+    private final long quantidade;
+    private final long somaVersoes;
+    private final long somaIds;
+
+    // Somas chegam nulas do banco quando não há pedidos ativos
+    public ResumoPedidosAtivos(Long quantidade, Long somaVersoes, Long somaIds) {
+        this.quantidade = quantidade != null ? quantidade : 0;
+        this.somaVersoes = somaVersoes != null ? somaVersoes : 0;
+        this.somaIds = somaIds != null ? somaIds : 0;
+    }
+
+    public static ResumoPedidosAtivos de(Collection<PedidoDTO> pedidos) {
+        long somaVersoes = 0;
+        long somaIds = 0;
+        for (PedidoDTO pedido : pedidos) {
+            somaVersoes += pedido.getVersao() != null ? pedido.getVersao() : 0;
+            somaIds += pedido.getId();
+        }
+        return new ResumoPedidosAtivos((long) pedidos.size(), somaVersoes, somaIds);
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        if (this == outro) {
+            return true;
+        }
+        if (!(outro instanceof ResumoPedidosAtivos resumo)) {
+            return false;
+        }
+        return quantidade == resumo.quantidade && somaVersoes == resumo.somaVersoes && somaIds == resumo.somaIds;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(quantidade, somaVersoes, somaIds);
+    }
+
+    @Override
+    public String toString() {
+        return "ResumoPedidosAtivos{quantidade=" + quantidade + ", somaVersoes=" + somaVersoes
+                + ", somaIds=" + somaIds + "}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.cardapio.dto;
+
+import com.cardapio.model.PedidoStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class StatusLoteRequest {
+    
+    @NotEmpty(message = "Informe ao menos um pedido")
+    @Size(max = 100, message = "Lote deve ter no máximo 100 pedidos")
+    private List<Long> ids;
+    
+    @NotNull(message = "Status é obrigatório")
+    private PedidoStatus status;
+    
+    // Obrigatório no lote: todos os pedidos saem do mesmo status, em um único UPDATE
+    @NotNull(message = "Status atual é obrigatório")
+    private PedidoStatus statusAtual;
+    
+    // Construtores
+    public StatusLoteRequest() {}
+    
+    public StatusLoteRequest(List<Long> ids, PedidoStatus status, PedidoStatus statusAtual) {
+        this.ids = ids;
+        this.status = status;
+        this.statusAtual = statusAtual;
+    }
+    
+    // Getters e Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public PedidoStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PedidoStatus status) {
+        this.status = status;
+    }
+    
+    public PedidoStatus getStatusAtual() {
+        return statusAtual;
+    }
+    
+    public void setStatusAtual(PedidoStatus statusAtual) {
+        this.statusAtual = statusAtual;
+    }
+}
@@ -8,6 +8,9 @@ public class StatusUpdateRequest {
     @NotNull(message = "Status é obrigatório")
     private PedidoStatus status;
     
+    // Opcional: status que o cliente vê agora; com ele a troca é feita em um único UPDATE condicional
+    private PedidoStatus statusAtual;
+    
     // Construtores
     public StatusUpdateRequest() {}
     
@@ -15,6 +18,11 @@ public class StatusUpdateRequest {
         this.status = status;
     }
     
+    public StatusUpdateRequest(PedidoStatus status, PedidoStatus statusAtual) {
+        this.status = status;
+        this.statusAtual = statusAtual;
+    }
+    
     // Getters e Setters
     public PedidoStatus getStatus() {
         return status;
@@ -23,5 +31,13 @@ public class StatusUpdateRequest {
     public void setStatus(PedidoStatus status) {
         this.status = status;
     }
+    
+    public PedidoStatus getStatusAtual() {
+        return statusAtual;
+    }
+    
+    public void setStatusAtual(PedidoStatus statusAtual) {
+        this.statusAtual = statusAtual;
+    }
 }
 
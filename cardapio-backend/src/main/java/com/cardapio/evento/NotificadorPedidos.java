@@ -0,0 +1,45 @@
+package com.cardapio.evento;
+
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.sse.CanalSse;
+import com.cardapio.sse.SseBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Encaminha os eventos de pedidos para as telas conectadas via SSE.
+ * Executa somente após o commit (pedidos revertidos nunca chegam às telas)
+ * e fora da thread da requisição, que já devolveu a conexão ao pool.
+ */
+@Component
+public class NotificadorPedidos {
+
+    @Autowired
+    private SseBroadcaster sseBroadcaster;
+
+    @Async("eventosExecutor")
+    @TransactionalEventListener
+    public void aoCriarPedido(PedidoCriadoEvento evento) {
+        sseBroadcaster.publicar(CanalSse.COZINHA, "novo-pedido", evento.getPedido());
+    }
+
+    @Async("eventosExecutor")
+    @TransactionalEventListener
+    public void aoAlterarStatus(StatusPedidoAlteradoEvento evento) {
+        // Notificar garçom se pedido ficou pronto
+        if (evento.getStatusNovo() == PedidoStatus.PRONTO && evento.getStatusAnterior() != PedidoStatus.PRONTO) {
+            sseBroadcaster.publicar(CanalSse.GARCOM, "pedido-pronto", evento.getPedido());
+        }
+    }
+
+    @Async("eventosExecutor")
+    @TransactionalEventListener
+    public void aoAlterarStatusEmLote(StatusPedidosAlteradosEvento evento) {
+        // Um único evento com todos os pedidos do lote que ficaram prontos
+        if (evento.getStatusNovo() == PedidoStatus.PRONTO) {
+            sseBroadcaster.publicar(CanalSse.GARCOM, "pedidos-prontos", evento.getPedidos());
+        }
+    }
+}
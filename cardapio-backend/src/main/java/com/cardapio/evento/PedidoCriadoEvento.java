@@ -0,0 +1,19 @@
+package com.cardapio.evento;
+
+import com.cardapio.dto.PedidoDTO;
+
+/**
+ * Publicado quando um novo pedido é salvo. Os ouvintes só o recebem depois do commit.
+ */
+public class PedidoCriadoEvento {
+
+    private final PedidoDTO pedido;
+
+    public PedidoCriadoEvento(PedidoDTO pedido) {
+        this.pedido = pedido;
+    }
+
+    public PedidoDTO getPedido() {
+        return pedido;
+    }
+}
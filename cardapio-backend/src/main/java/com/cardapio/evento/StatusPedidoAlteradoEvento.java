@@ -0,0 +1,30 @@
+package com.cardapio.evento;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.model.PedidoStatus;
+
+/**
+ * Publicado quando o status de um pedido muda. Os ouvintes só o recebem depois do commit.
+ */
+public class StatusPedidoAlteradoEvento {
+
+    private final PedidoDTO pedido;
+    private final PedidoStatus statusAnterior;
+
+    public StatusPedidoAlteradoEvento(PedidoDTO pedido, PedidoStatus statusAnterior) {
+        this.pedido = pedido;
+        this.statusAnterior = statusAnterior;
+    }
+
+    public PedidoDTO getPedido() {
+        return pedido;
+    }
+
+    public PedidoStatus getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public PedidoStatus getStatusNovo() {
+        return pedido.getStatus();
+    }
+}
@@ -0,0 +1,43 @@
+package com.cardapio.evento;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.model.PedidoStatus;
+
+import java.util.List;
+
+/**
+ * Publicado uma vez por mudança de status em lote: todos os pedidos saíram do mesmo status para o mesmo status
+ * na mesma transação. As telas recebem um único evento SSE para o lote inteiro.
+ */
+public class StatusPedidosAlteradosEvento {
+
+    private final List<PedidoDTO> pedidos;
+    private final PedidoStatus statusAnterior;
+    private final PedidoStatus statusNovo;
+
+    public StatusPedidosAlteradosEvento(List<PedidoDTO> pedidos, PedidoStatus statusAnterior,
+            PedidoStatus statusNovo) {
+        this.pedidos = List.copyOf(pedidos);
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+    }
+
+    public List<PedidoDTO> getPedidos() {
+        return pedidos;
+    }
+
+    public PedidoStatus getStatusAnterior() {
+        return statusAnterior;
+    }
+
+    public PedidoStatus getStatusNovo() {
+        return statusNovo;
+    }
+
+    // A mesma mudança vista pedido a pedido, para ouvintes que tratam um pedido por vez
+    public List<StatusPedidoAlteradoEvento> porPedido() {
+        return pedidos.stream()
+                .map(pedido -> new StatusPedidoAlteradoEvento(pedido, statusAnterior))
+                .toList();
+    }
+}
@@ -15,9 +15,11 @@ public interface ItemCardapioMapper {
     ItemCardapioDTO toDTO(ItemCardapio itemCardapio);
     
     @Mapping(target = "id", ignore = true) // ID será gerado automaticamente
+    @Mapping(target = "versao", ignore = true) // Controlada pelo Hibernate
     ItemCardapio toEntity(ItemCardapioDTO itemCardapioDTO);
     
     @Mapping(target = "id", ignore = true) // Não atualizar o ID
+    @Mapping(target = "versao", ignore = true) // Controlada pelo Hibernate
     void updateEntityFromDTO(ItemCardapioDTO itemCardapioDTO, @MappingTarget ItemCardapio itemCardapio);
 }
 
@@ -13,12 +13,13 @@ public interface PedidoMapper {
     
     PedidoMapper INSTANCE = Mappers.getMapper(PedidoMapper.class);
     
-    @Mapping(target = "valorTotal", expression = "java(pedido.getValorTotal())")
+    // valorTotal e quantidadeItens vêm das colunas gravadas, sem percorrer as linhas
     PedidoDTO toDTO(Pedido pedido);
     
     @Mapping(target = "id", ignore = true) // ID será gerado automaticamente
     @Mapping(target = "dataCriacao", ignore = true) // Será definido no construtor
     @Mapping(target = "dataAtualizacao", ignore = true) // Será definido no construtor
+    @Mapping(target = "versao", ignore = true) // Controlada pelo Hibernate
     Pedido toEntity(PedidoDTO pedidoDTO);
     
     @Mapping(target = "itemId", source = "item.id")
@@ -36,6 +36,11 @@ public class ItemCardapio {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    // Incrementada a cada alteração; nulo até o primeiro persist, para que save() reconheça o item como novo
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     // Construtores
     public ItemCardapio() {
     }
@@ -96,4 +101,12 @@ public class ItemCardapio {
     public void setAtivo(Boolean ativo) {
         this.ativo = ativo;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -9,11 +9,18 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "pedidos")
+@Table(name = "pedidos", indexes = {
+        // Um índice por padrão de consulta do PedidoRepository; o índice parcial dos pedidos ativos fica na migração V2
+        @Index(name = "idx_pedidos_status_data_criacao", columnList = "status, data_criacao"),
+        @Index(name = "idx_pedidos_mesa_data_criacao", columnList = "mesa, data_criacao DESC"),
+        @Index(name = "idx_pedidos_data_criacao_id", columnList = "data_criacao, id")
+})
 public class Pedido {
 
+    // Sequência com blocos de 50 IDs: o Hibernate atribui os IDs sem INSERT imediato e pode agrupar os INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @Size(max = 20, message = "Número da mesa deve ter no máximo 20 caracteres")
@@ -36,6 +43,18 @@ public class Pedido {
     @Column(name = "observacoes", length = 500)
     private String observacoes;
 
+    // Totais mantidos a cada alteração das linhas; leituras e relatórios não precisam percorrer os itens
+    @Column(name = "valor_total", nullable = false, precision = 12, scale = 2)
+    private BigDecimal valorTotal = BigDecimal.ZERO;
+
+    @Column(name = "quantidade_itens", nullable = false)
+    private Integer quantidadeItens = 0;
+
+    // Incrementada a cada alteração; nulo até o primeiro persist, para que save() reconheça o pedido como novo
+    @Version
+    @Column(nullable = false)
+    private Long versao;
+
     // Construtores
     public Pedido() {
         this.dataCriacao = LocalDateTime.now();
@@ -50,19 +69,28 @@ public class Pedido {
 
     // Métodos auxiliares
     public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public Integer getQuantidadeItens() {
+        return quantidadeItens;
+    }
+
+    // Soma as linhas novamente; usado quando as linhas são substituídas de uma vez
+    public BigDecimal calcularValorTotalDosItens() {
         if (itens == null) {
             return BigDecimal.ZERO;
         }
         return itens.stream()
-                // 1. Mapeia cada PedidoItem para o seu subtotal (que é BigDecimal)
                 .map(PedidoItem::getSubtotal)
-                // 2. Soma todos os BigDecimals do stream
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     public void adicionarItem(PedidoItem item) {
         item.setPedido(this);
         this.itens.add(item);
+        this.valorTotal = this.valorTotal.add(item.getSubtotal());
+        this.quantidadeItens += item.getQuantidade();
     }
 
     @PreUpdate
@@ -97,6 +125,8 @@ public class Pedido {
         if (itens != null) {
             itens.forEach(item -> item.setPedido(this));
         }
+        this.valorTotal = calcularValorTotalDosItens();
+        this.quantidadeItens = itens == null ? 0 : itens.stream().mapToInt(PedidoItem::getQuantidade).sum();
     }
 
     public PedidoStatus getStatus() {
@@ -131,4 +161,12 @@ public class Pedido {
     public void setObservacoes(String observacoes) {
         this.observacoes = observacoes;
     }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
@@ -8,11 +8,15 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "pedido_itens")
+@Table(name = "pedido_itens", indexes = {
+        @Index(name = "idx_pedido_itens_pedido", columnList = "pedido_id"),
+        @Index(name = "idx_pedido_itens_item_cardapio", columnList = "item_cardapio_id")
+})
 public class PedidoItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_itens_seq")
+    @SequenceGenerator(name = "pedido_itens_seq", sequenceName = "pedido_itens_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -4,6 +4,26 @@ public enum PedidoStatus {
     RECEBIDO,
     EM_PREPARO,
     PRONTO,
-    ENTREGUE
-}
+    ENTREGUE;
+
+    // Transições permitidas, indexadas por [origem][destino] (ordinais); consultar não aloca nada
+    private static final boolean[][] TRANSICOES = new boolean[values().length][values().length];
+
+    static {
+        permitir(RECEBIDO, EM_PREPARO);
+        permitir(EM_PREPARO, PRONTO);
+        permitir(PRONTO, ENTREGUE);
+        // Correções de um toque errado: volta apenas um passo
+        permitir(EM_PREPARO, RECEBIDO);
+        permitir(PRONTO, EM_PREPARO);
+        permitir(ENTREGUE, PRONTO);
+    }
 
+    private static void permitir(PedidoStatus origem, PedidoStatus destino) {
+        TRANSICOES[origem.ordinal()][destino.ordinal()] = true;
+    }
+
+    public boolean podeMudarPara(PedidoStatus destino) {
+        return TRANSICOES[ordinal()][destino.ordinal()];
+    }
+}
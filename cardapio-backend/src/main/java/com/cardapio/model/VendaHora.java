@@ -0,0 +1,86 @@
+package com.cardapio.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * Contadores de pedidos e vendas de uma hora do dia, atualizados incrementalmente
+ * a cada criação e entrega de pedido. Pedidos contam na hora em que foram criados.
+ */
+@Entity
+@Table(name = "vendas_por_hora")
+@IdClass(VendaHora.Chave.class)
+public class VendaHora {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Id
+    @Column(nullable = false)
+    private Integer hora;
+
+    @Column(nullable = false)
+    private Long pedidos = 0L;
+
+    @Column(name = "pedidos_entregues", nullable = false)
+    private Long pedidosEntregues = 0L;
+
+    @Column(name = "valor_vendas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorVendas = BigDecimal.ZERO;
+
+    // Construtores
+    public VendaHora() {
+    }
+
+    // Getters e Setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Integer getHora() {
+        return hora;
+    }
+
+    public Long getPedidos() {
+        return pedidos;
+    }
+
+    public Long getPedidosEntregues() {
+        return pedidosEntregues;
+    }
+
+    public BigDecimal getValorVendas() {
+        return valorVendas;
+    }
+
+    public static class Chave implements Serializable {
+
+        private LocalDate dia;
+        private Integer hora;
+
+        public Chave() {
+        }
+
+        public Chave(LocalDate dia, Integer hora) {
+            this.dia = dia;
+            this.hora = hora;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave outra)) return false;
+            return Objects.equals(dia, outra.dia) && Objects.equals(hora, outra.hora);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, hora);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.cardapio.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * Quantidade entregue de um item do cardápio em um dia, atualizada incrementalmente a cada entrega.
+ * Pedidos contam no dia em que foram criados.
+ */
+@Entity
+@Table(name = "vendas_por_item")
+@IdClass(VendaItemDia.Chave.class)
+public class VendaItemDia {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate dia;
+
+    @Id
+    @Column(name = "item_cardapio_id", nullable = false)
+    private Long itemCardapioId;
+
+    @Column(nullable = false)
+    private Long quantidade = 0L;
+
+    // Construtores
+    public VendaItemDia() {
+    }
+
+    // Getters e Setters
+    public LocalDate getDia() {
+        return dia;
+    }
+
+    public Long getItemCardapioId() {
+        return itemCardapioId;
+    }
+
+    public Long getQuantidade() {
+        return quantidade;
+    }
+
+    public static class Chave implements Serializable {
+
+        private LocalDate dia;
+        private Long itemCardapioId;
+
+        public Chave() {
+        }
+
+        public Chave(LocalDate dia, Long itemCardapioId) {
+            this.dia = dia;
+            this.itemCardapioId = itemCardapioId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave outra)) return false;
+            return Objects.equals(dia, outra.dia) && Objects.equals(itemCardapioId, outra.itemCardapioId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(dia, itemCardapioId);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cardapio.repository;
 
+import com.cardapio.dto.ResumoCardapio;
 import com.cardapio.model.ItemCardapio;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,7 +15,9 @@ public interface ItemCardapioRepository extends JpaRepository<ItemCardapio, Long
     @Query("SELECT i FROM ItemCardapio i WHERE i.ativo = true ORDER BY i.nome ASC")
     List<ItemCardapio> findAllAtivosOrdenados();
     
-    @Query("SELECT i FROM ItemCardapio i WHERE i.nome LIKE %:nome% AND i.ativo = true")
-    List<ItemCardapio> findByNomeContainingAndAtivoTrue(String nome);
+    // Conferência periódica do cardápio em memória: uma linha agregada sobre os itens ativos
+    @Query("SELECT new com.cardapio.dto.ResumoCardapio(COUNT(i), SUM(i.versao), SUM(i.id)) " +
+           "FROM ItemCardapio i WHERE i.ativo = true")
+    ResumoCardapio resumirAtivos();
 }
 
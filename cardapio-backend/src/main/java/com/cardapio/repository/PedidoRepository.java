@@ -1,40 +1,109 @@
 package com.cardapio.repository;
 
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.cardapio.dto.ResumoPedidosAtivos;
 import com.cardapio.model.Pedido;
 import com.cardapio.model.PedidoStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     
     List<Pedido> findByStatus(PedidoStatus status);
     
-    @Query("SELECT p FROM Pedido p WHERE p.status = :status ORDER BY p.dataCriacao ASC")
-    List<Pedido> findByStatusOrderByDataCriacaoAsc(@Param("status") PedidoStatus status);
+    // Quadros da cozinha e do garçom: projeção plana, sem entidades gerenciadas nem snapshots de dirty-checking
+    @Query("SELECT new com.cardapio.dto.PedidoLinhaQuadro(p.id, p.mesa, p.status, p.dataCriacao, p.dataAtualizacao, " +
+           "p.observacoes, p.valorTotal, p.quantidadeItens, p.versao, pi.id, i.id, i.nome, pi.quantidade, pi.precoUnitario, " +
+           "pi.observacoesItem) " +
+           "FROM Pedido p LEFT JOIN p.itens pi LEFT JOIN pi.item i " +
+           "WHERE p.status IN :statuses ORDER BY p.dataCriacao ASC, p.id ASC, pi.id ASC")
+    List<PedidoLinhaQuadro> findLinhasQuadroByStatusIn(@Param("statuses") Collection<PedidoStatus> statuses);
     
-    @Query("SELECT p FROM Pedido p WHERE p.dataCriacao BETWEEN :inicio AND :fim ORDER BY p.dataCriacao DESC")
-    Page<Pedido> findByDataCriacaoBetween(@Param("inicio") LocalDateTime inicio, 
-                                          @Param("fim") LocalDateTime fim, 
-                                          Pageable pageable);
+    // Conferência periódica do quadro em memória: uma linha agregada sobre os pedidos ativos
+    @Query("SELECT new com.cardapio.dto.ResumoPedidosAtivos(COUNT(p), SUM(p.versao), SUM(p.id)) " +
+           "FROM Pedido p WHERE p.status IN :statuses")
+    ResumoPedidosAtivos resumirPorStatusIn(@Param("statuses") Collection<PedidoStatus> statuses);
     
+    // Paginação em duas etapas: LIMIT/OFFSET aplicado só aos IDs, sem fetch join de coleção
+    // (que obrigaria o Hibernate a paginar em memória); os pedidos da página vêm de findComItensByIdIn
+    @Query(value = "SELECT p.id FROM Pedido p",
+           countQuery = "SELECT COUNT(p) FROM Pedido p")
+    Page<Long> findIds(Pageable pageable);
+    
+    @Query(value = "SELECT p.id FROM Pedido p WHERE p.dataCriacao BETWEEN :inicio AND :fim ORDER BY p.dataCriacao DESC",
+           countQuery = "SELECT COUNT(p) FROM Pedido p WHERE p.dataCriacao BETWEEN :inicio AND :fim")
+    Page<Long> findIdsByDataCriacaoBetween(@Param("inicio") LocalDateTime inicio, 
+                                           @Param("fim") LocalDateTime fim, 
+                                           Pageable pageable);
+    
+    // Paginação por chave (dataCriacao, id), mais recentes primeiro: a posição vem do último pedido
+    // da página anterior, sem OFFSET nem COUNT; o Pageable serve apenas de LIMIT
+    @Query("SELECT p.id FROM Pedido p ORDER BY p.dataCriacao DESC, p.id DESC")
+    List<Long> findIdsMaisRecentes(Pageable limite);
+    
+    @Query("SELECT p.id FROM Pedido p WHERE (p.dataCriacao, p.id) < (:dataCriacao, :id) " +
+           "ORDER BY p.dataCriacao DESC, p.id DESC")
+    List<Long> findIdsAnterioresA(@Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id,
+                                  Pageable limite);
+    
+    @Query("SELECT p.id FROM Pedido p WHERE p.dataCriacao BETWEEN :inicio AND :fim " +
+           "AND (p.dataCriacao, p.id) < (:dataCriacao, :id) ORDER BY p.dataCriacao DESC, p.id DESC")
+    List<Long> findIdsPorPeriodoAnterioresA(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim,
+                                            @Param("dataCriacao") LocalDateTime dataCriacao, @Param("id") Long id,
+                                            Pageable limite);
+    
+    long countByDataCriacaoBetween(LocalDateTime inicio, LocalDateTime fim);
+    
+    @EntityGraph(attributePaths = {"itens", "itens.item"})
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids")
+    List<Pedido> findComItensByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Consultas de listagem carregam pedidos, linhas e itens do cardápio em uma única instrução
+    @EntityGraph(attributePaths = {"itens", "itens.item"})
     @Query("SELECT p FROM Pedido p WHERE p.mesa = :mesa ORDER BY p.dataCriacao DESC")
     List<Pedido> findByMesaOrderByDataCriacaoDesc(@Param("mesa") String mesa);
     
-    @Query("SELECT p FROM Pedido p WHERE p.status IN :statuses ORDER BY p.dataCriacao ASC")
-    List<Pedido> findByStatusInOrderByDataCriacaoAsc(@Param("statuses") List<PedidoStatus> statuses);
+    @Query("SELECT p.status FROM Pedido p WHERE p.id = :id")
+    Optional<PedidoStatus> findStatusById(@Param("id") Long id);
+    
+    // Troca de status condicional: só altera se o pedido ainda estiver no status esperado, sem SELECT prévio
+    // nem trava explícita; entre requisições simultâneas, apenas uma encontra o status esperado
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novo, p.dataAtualizacao = :agora, p.versao = p.versao + 1 " +
+           "WHERE p.id = :id AND p.status = :esperado")
+    int atualizarStatus(@Param("id") Long id, @Param("esperado") PedidoStatus esperado,
+                        @Param("novo") PedidoStatus novo, @Param("agora") LocalDateTime agora);
+    
+    // Lote: trava os pedidos em ordem de ID (lotes concorrentes travam na mesma ordem, sem deadlock)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids ORDER BY p.id")
+    List<Pedido> findParaAtualizarByIdIn(@Param("ids") Collection<Long> ids);
     
-    // Para relatórios e estatísticas
-    @Query("SELECT COUNT(p) FROM Pedido p WHERE p.dataCriacao >= :inicio")
-    Long countPedidosHoje(@Param("inicio") LocalDateTime inicio);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Pedido p SET p.status = :novo, p.dataAtualizacao = :agora, p.versao = p.versao + 1 " +
+           "WHERE p.id IN :ids AND p.status = :esperado")
+    int atualizarStatusEmLote(@Param("ids") Collection<Long> ids, @Param("esperado") PedidoStatus esperado,
+                              @Param("novo") PedidoStatus novo, @Param("agora") LocalDateTime agora);
     
-    @Query("SELECT SUM(pi.precoUnitario * pi.quantidade) FROM Pedido p JOIN p.itens pi WHERE p.dataCriacao >= :inicio AND p.status = 'ENTREGUE'")
-    Double somaVendasHoje(@Param("inicio") LocalDateTime inicio);
+    // Auditoria: pedidos cujos totais gravados não batem com a soma das linhas
+    @Query("SELECT p.id FROM Pedido p LEFT JOIN p.itens pi " +
+           "GROUP BY p.id, p.valorTotal, p.quantidadeItens " +
+           "HAVING p.valorTotal <> COALESCE(SUM(pi.precoUnitario * pi.quantidade), 0) " +
+           "OR p.quantidadeItens <> COALESCE(SUM(pi.quantidade), 0) " +
+           "ORDER BY p.id")
+    List<Long> findIdsComTotaisDivergentes();
 }
 
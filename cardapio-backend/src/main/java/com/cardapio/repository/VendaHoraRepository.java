@@ -0,0 +1,46 @@
+package com.cardapio.repository;
+
+import com.cardapio.model.VendaHora;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VendaHoraRepository extends JpaRepository<VendaHora, VendaHora.Chave> {
+    
+    List<VendaHora> findByDiaOrderByHora(LocalDate dia);
+    
+    // Cria a linha zerada da hora, se ainda não existir; transações concorrentes não conflitam
+    @Modifying
+    @Query(value = "INSERT INTO vendas_por_hora (dia, hora, pedidos, pedidos_entregues, valor_vendas) " +
+                   "VALUES (:dia, :hora, 0, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void garantirLinha(@Param("dia") LocalDate dia, @Param("hora") int hora);
+    
+    @Modifying
+    @Query("UPDATE VendaHora v SET v.pedidos = v.pedidos + :pedidos, " +
+           "v.pedidosEntregues = v.pedidosEntregues + :entregues, v.valorVendas = v.valorVendas + :valor " +
+           "WHERE v.dia = :dia AND v.hora = :hora")
+    int somar(@Param("dia") LocalDate dia, @Param("hora") int hora, @Param("pedidos") long pedidos,
+              @Param("entregues") long entregues, @Param("valor") BigDecimal valor);
+    
+    @Modifying
+    @Query("DELETE FROM VendaHora v WHERE v.dia >= :inicio AND v.dia < :fim")
+    int removerPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+    
+    // Recalcula as horas do período a partir dos pedidos gravados
+    @Modifying
+    @Query(value = "INSERT INTO vendas_por_hora (dia, hora, pedidos, pedidos_entregues, valor_vendas) " +
+                   "SELECT CAST(p.data_criacao AS DATE), EXTRACT(HOUR FROM p.data_criacao), COUNT(*), " +
+                   "SUM(CASE WHEN p.status = 'ENTREGUE' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN p.status = 'ENTREGUE' THEN p.valor_total ELSE 0 END) " +
+                   "FROM pedidos p WHERE p.data_criacao >= :inicio AND p.data_criacao < :fim " +
+                   "GROUP BY CAST(p.data_criacao AS DATE), EXTRACT(HOUR FROM p.data_criacao)", nativeQuery = true)
+    int recalcularPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -0,0 +1,40 @@
+package com.cardapio.repository;
+
+import com.cardapio.model.VendaItemDia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VendaItemDiaRepository extends JpaRepository<VendaItemDia, VendaItemDia.Chave> {
+    
+    List<VendaItemDia> findByDiaOrderByItemCardapioId(LocalDate dia);
+    
+    @Modifying
+    @Query(value = "INSERT INTO vendas_por_item (dia, item_cardapio_id, quantidade) " +
+                   "VALUES (:dia, :itemId, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    void garantirLinha(@Param("dia") LocalDate dia, @Param("itemId") Long itemId);
+    
+    @Modifying
+    @Query("UPDATE VendaItemDia v SET v.quantidade = v.quantidade + :quantidade " +
+           "WHERE v.dia = :dia AND v.itemCardapioId = :itemId")
+    int somar(@Param("dia") LocalDate dia, @Param("itemId") Long itemId, @Param("quantidade") long quantidade);
+    
+    @Modifying
+    @Query("DELETE FROM VendaItemDia v WHERE v.dia >= :inicio AND v.dia < :fim")
+    int removerPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+    
+    @Modifying
+    @Query(value = "INSERT INTO vendas_por_item (dia, item_cardapio_id, quantidade) " +
+                   "SELECT CAST(p.data_criacao AS DATE), pi.item_cardapio_id, SUM(pi.quantidade) " +
+                   "FROM pedidos p JOIN pedido_itens pi ON pi.pedido_id = p.id " +
+                   "WHERE p.status = 'ENTREGUE' AND p.data_criacao >= :inicio AND p.data_criacao < :fim " +
+                   "GROUP BY CAST(p.data_criacao AS DATE), pi.item_cardapio_id", nativeQuery = true)
+    int recalcularPeriodo(@Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+}
@@ -1,13 +1,14 @@
 package com.cardapio.security;
 
 import com.cardapio.model.Usuario;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.util.Collection;
 import java.util.Collections;
 
-public class CustomUserDetails implements UserDetails {
+public class CustomUserDetails implements UserDetails, CredentialsContainer {
     
     private Long id;
     private String email;
@@ -23,6 +24,13 @@ public class CustomUserDetails implements UserDetails {
         this.nome = usuario.getNome();
     }
     
+    // Principal montado apenas a partir das claims já verificadas do token (sem senha nem nome)
+    public CustomUserDetails(Long id, String email, String role) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+    }
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
@@ -58,6 +66,11 @@ public class CustomUserDetails implements UserDetails {
         return true;
     }
     
+    @Override
+    public void eraseCredentials() {
+        this.senha = null;
+    }
+    
     // Getters adicionais
     public Long getId() {
         return id;
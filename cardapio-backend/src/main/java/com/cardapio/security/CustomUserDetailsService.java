@@ -14,6 +14,9 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UsuarioRepository usuarioRepository;
     
+    @Autowired
+    private UsuarioCache usuarioCache;
+    
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         Usuario usuario = usuarioRepository.findByEmail(email)
@@ -21,5 +24,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         
         return new CustomUserDetails(usuario);
     }
+    
+    // Usado pelo filtro JWT: consulta o cache antes do banco. O login continua sempre lendo do banco.
+    public UserDetails carregarUsuarioAutenticado(String email) throws UsernameNotFoundException {
+        CustomUserDetails emCache = usuarioCache.buscar(email);
+        if (emCache != null) {
+            return emCache;
+        }
+        
+        CustomUserDetails usuario = (CustomUserDetails) loadUserByUsername(email);
+        usuarioCache.armazenar(usuario);
+        return usuario;
+    }
 }
-
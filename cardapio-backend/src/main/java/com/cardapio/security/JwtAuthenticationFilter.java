@@ -1,10 +1,12 @@
 package com.cardapio.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,28 +24,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
     
+    @Autowired
+    private TokenVerificadoCache tokenVerificadoCache;
+    
+    // Modo stateless: o principal é montado a partir das claims do token, sem consultar o banco
+    @Value("${spring.security.jwt.stateless:false}")
+    private boolean stateless;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        Claims claims = null;
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // Assinatura e expiração verificadas uma única vez por token enquanto ele estiver em cache
+                claims = tokenVerificadoCache.verificar(jwt);
             } catch (Exception e) {
-                logger.error("Erro ao extrair username do token JWT", e);
+                logger.error("Erro ao validar o token JWT", e);
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = claims.getSubject();
+            UserDetails userDetails = stateless
+                    ? new CustomUserDetails(jwtUtil.extractUserId(claims), username, jwtUtil.extractRole(claims))
+                    : this.userDetailsService.carregarUsuarioAutenticado(username);
             
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (jwtUtil.validateToken(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = 
                     new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
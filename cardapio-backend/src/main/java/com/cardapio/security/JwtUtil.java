@@ -1,6 +1,7 @@
 package com.cardapio.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -26,12 +27,24 @@ public class JwtUtil {
 
     private SecretKey signingKey;
 
+    private JwtParser parser;
+
     /// Este métod0 é executado uma vez após a inicialização do componente.
     /// Ele converte a string secreta do application-dev.yml em uma chave criptográfica segura (SecretKey).
     /// Isso garante que a chave seja compatível com o algoritmo HMAC-SHA.
+    /// O parser também é criado uma única vez: ele é imutável e pode ser compartilhado entre threads.
     @PostConstruct
     public void init() {
         this.signingKey = Keys.hmacShaKeyFor(secretString.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(this.signingKey) // Usa a chave já processada
+                .build();
+    }
+
+    /// Verifica assinatura e expiração do token uma única vez e devolve as claims já validadas.
+    /// Lança JwtException se o token for inválido ou estiver expirado.
+    public Claims verificarToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractUsername(String token) {
@@ -48,15 +61,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(this.signingKey) // Usa a chave já processada
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return verificarToken(token);
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -81,16 +86,27 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(extractAllClaims(token), userDetails);
+    }
+
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractRole(extractAllClaims(token));
+    }
+
+    public String extractRole(Claims claims) {
+        return claims.get("role", String.class);
     }
 
     public Long extractUserId(String token) {
-        Object userIdObj = extractAllClaims(token).get("userId");
+        return extractUserId(extractAllClaims(token));
+    }
+
+    public Long extractUserId(Claims claims) {
+        Object userIdObj = claims.get("userId");
         if (userIdObj instanceof Integer) {
             return ((Integer) userIdObj).longValue();
         }
@@ -0,0 +1,133 @@
+package com.cardapio.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache das claims de tokens JWT já verificados. Telas da cozinha e do garçom enviam
+ * o mesmo token milhares de vezes por turno; com o cache a verificação HMAC acontece
+ * uma única vez e as requisições seguintes pagam apenas um SHA-256 do token.
+ * As entradas são descartadas quando o token expira (claim exp) e, com o cache cheio,
+ * sai o token usado há mais tempo.
+ */
+@Component
+public class TokenVerificadoCache {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${spring.security.jwt.cache-tokens.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${spring.security.jwt.cache-tokens.tamanho-maximo:10000}")
+    private int tamanhoMaximo;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder expirados = new LongAdder();
+    private final LongAdder expulsoes = new LongAdder();
+
+    // A chave é o hash do token, para não manter tokens brutos em memória. Em ordem de acesso: ao passar do
+    // limite, o descarte do usado há mais tempo custa O(1). Guardado por si mesmo
+    private final Map<String, Entrada> tokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntigo) {
+            if (size() <= tamanhoMaximo) {
+                return false;
+            }
+            if (maisAntigo.getValue().expiraEm <= System.currentTimeMillis()) {
+                expirados.increment();
+            } else {
+                expulsoes.increment();
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Devolve as claims do token, verificando assinatura e expiração apenas na primeira vez.
+     * Lança JwtException se o token for inválido ou estiver expirado.
+     */
+    public Claims verificar(String token) {
+        if (!habilitado) {
+            return jwtUtil.verificarToken(token);
+        }
+
+        String chave = hash(token);
+        Entrada entrada;
+        synchronized (tokens) {
+            entrada = tokens.get(chave);
+        }
+        if (entrada != null) {
+            if (entrada.expiraEm > System.currentTimeMillis()) {
+                acertos.increment();
+                return entrada.claims;
+            }
+            synchronized (tokens) {
+                tokens.remove(chave, entrada);
+            }
+            expirados.increment();
+        }
+
+        falhas.increment();
+        Claims claims = jwtUtil.verificarToken(token);
+        armazenar(chave, claims);
+        return claims;
+    }
+
+    public Map<String, Long> estatisticas() {
+        Map<String, Long> estatisticas = new LinkedHashMap<>();
+        synchronized (tokens) {
+            estatisticas.put("tamanho", (long) tokens.size());
+        }
+        estatisticas.put("acertos", acertos.sum());
+        estatisticas.put("falhas", falhas.sum());
+        estatisticas.put("expirados", expirados.sum());
+        estatisticas.put("expulsoes", expulsoes.sum());
+        return estatisticas;
+    }
+
+    public void limpar() {
+        synchronized (tokens) {
+            tokens.clear();
+        }
+    }
+
+    private void armazenar(String chave, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return; // Sem exp não há como saber até quando a verificação vale
+        }
+        synchronized (tokens) {
+            tokens.put(chave, new Entrada(claims, claims.getExpiration().getTime()));
+        }
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private static final class Entrada {
+        private final Claims claims;
+        private final long expiraEm;
+
+        private Entrada(Claims claims, long expiraEm) {
+            this.claims = claims;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.cardapio.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache limitado e com expiração dos usuários carregados para requisições autenticadas,
+ * evitando uma consulta ao banco a cada requisição com token JWT. Com o cache cheio, sai o
+ * usuário usado há mais tempo. A senha (hash) não fica no cache: o caminho do JWT não precisa dela.
+ */
+@Component
+public class UsuarioCache {
+
+    @Value("${spring.security.jwt.cache-usuarios.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${spring.security.jwt.cache-usuarios.tamanho-maximo:1000}")
+    private int tamanhoMaximo;
+
+    @Value("${spring.security.jwt.cache-usuarios.ttl:60000}")
+    private long ttl;
+
+    // Em ordem de acesso: ao passar do limite, o descarte do usado há mais tempo custa O(1). Guardado por si mesmo
+    private final Map<String, Entrada> usuarios = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntigo) {
+            return size() > tamanhoMaximo;
+        }
+    };
+
+    public CustomUserDetails buscar(String email) {
+        if (!habilitado) {
+            return null;
+        }
+        synchronized (usuarios) {
+            Entrada entrada = usuarios.get(email);
+            if (entrada == null) {
+                return null;
+            }
+            if (entrada.expiraEm < System.currentTimeMillis()) {
+                usuarios.remove(email);
+                return null;
+            }
+            return entrada.usuario;
+        }
+    }
+
+    // Apaga a senha do usuário antes de guardá-lo; o login continua lendo do banco
+    public void armazenar(CustomUserDetails usuario) {
+        if (!habilitado) {
+            return;
+        }
+        usuario.eraseCredentials();
+        Entrada entrada = new Entrada(usuario, System.currentTimeMillis() + ttl);
+        synchronized (usuarios) {
+            usuarios.put(usuario.getUsername(), entrada);
+        }
+    }
+
+    public void invalidar(String email) {
+        synchronized (usuarios) {
+            usuarios.remove(email);
+        }
+    }
+
+    // Percorre o cache, mas só roda quando um usuário é alterado
+    public void invalidarPorId(Long id) {
+        synchronized (usuarios) {
+            usuarios.values().removeIf(entrada -> entrada.usuario.getId().equals(id));
+        }
+    }
+
+    // Invalida após o commit para que uma requisição concorrente não recoloque no cache dados ainda não confirmados
+    public void invalidarAposCommit(Long id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidarPorId(id);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidarPorId(id);
+                }
+            });
+        } else {
+            invalidarPorId(id);
+        }
+    }
+
+    public int tamanho() {
+        synchronized (usuarios) {
+            return usuarios.size();
+        }
+    }
+
+    private static final class Entrada {
+        private final CustomUserDetails usuario;
+        private final long expiraEm;
+
+        private Entrada(CustomUserDetails usuario, long expiraEm) {
+            this.usuario = usuario;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.ItemCardapioDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Busca no cardápio ativo servida por um {@link IndiceBuscaCardapio} em memória, sem acessar o banco.
+ * Quando a versão do cardápio muda, o índice é atualizado a partir do índice anterior na primeira busca.
+ */
+@Component
+public class BuscaCardapio {
+
+    @Autowired
+    private MenuService menuService;
+
+    private final AtomicReference<IndiceBuscaCardapio> atual = new AtomicReference<>();
+
+    public List<ItemCardapioDTO> buscar(String texto, int limite) {
+        return obterIndice().buscar(texto, limite);
+    }
+
+    IndiceBuscaCardapio obterIndice() {
+        IndiceBuscaCardapio indice = atual.get();
+        if (indice != null && indice.getVersao() == menuService.getVersaoCardapio()) {
+            return indice;
+        }
+
+        CardapioSnapshot snapshot = menuService.obterSnapshotCardapio();
+        IndiceBuscaCardapio novo = indice == null
+                ? IndiceBuscaCardapio.construir(snapshot)
+                : indice.atualizar(snapshot);
+        // Uma atualização concorrente já publicada prevalece; a busca atual usa o índice que montou
+        atual.compareAndSet(indice, novo);
+        return novo;
+    }
+}
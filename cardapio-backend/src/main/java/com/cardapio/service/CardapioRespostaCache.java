@@ -0,0 +1,169 @@
+package com.cardapio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mantém o cardápio público já serializado em JSON (e compactado em gzip),
+ * junto com ETags fortes derivados do conteúdo, um para cada representação. Enquanto a versão do cardápio
+ * não mudar, as requisições são atendidas sem acessar o banco nem o Jackson.
+ */
+@Component
+public class CardapioRespostaCache {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicReference<CardapioSerializado> atual = new AtomicReference<>();
+
+    public CardapioSerializado obter() {
+        CardapioSerializado cache = atual.get();
+        if (cache != null && cache.getVersao() == menuService.getVersaoCardapio()) {
+            return cache;
+        }
+
+        CardapioSerializado novo = serializar(menuService.obterSnapshotCardapio());
+        atual.set(novo);
+        return novo;
+    }
+
+    /**
+     * Decide pelo cabeçalho Accept-Encoding se a versão gzip pode ser enviada, respeitando os pesos
+     * (q) da RFC 9110: q=0 recusa a codificação, e a menção explícita a gzip prevalece sobre "*".
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double pesoGzip = null;
+        Double pesoCuringa = null;
+        for (String elemento : acceptEncoding.split(",")) {
+            String[] partes = elemento.split(";");
+            String codificacao = partes[0].trim();
+            double peso = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.length() > 2 && parametro.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        peso = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // Peso inválido: na dúvida, trata como recusa
+                        peso = 0;
+                    }
+                }
+            }
+            if (codificacao.equalsIgnoreCase("gzip") || codificacao.equalsIgnoreCase("x-gzip")) {
+                pesoGzip = pesoGzip == null ? peso : Math.max(pesoGzip, peso);
+            } else if (codificacao.equals("*")) {
+                pesoCuringa = peso;
+            }
+        }
+        if (pesoGzip != null) {
+            return pesoGzip > 0;
+        }
+        return pesoCuringa != null && pesoCuringa > 0;
+    }
+
+    private CardapioSerializado serializar(CardapioSnapshot snapshot) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(snapshot.getItens());
+            return new CardapioSerializado(snapshot.getVersao(), calcularEtag(json), json, compactar(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar o cardápio", e);
+        }
+    }
+
+    private String calcularEtag(byte[] conteudo) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
+    }
+
+    private byte[] compactar(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    public static final class CardapioSerializado {
+
+        private final long versao;
+        private final String etag;
+        // Bytes diferentes exigem outro validador forte (RFC 9110), senão caches e Range misturam as versões
+        private final String etagGzip;
+        private final byte[] json;
+        private final byte[] jsonGzip;
+
+        CardapioSerializado(long versao, String etag, byte[] json, byte[] jsonGzip) {
+            this.versao = versao;
+            this.etag = etag;
+            this.etagGzip = etag.substring(0, etag.length() - 1) + "-gzip\"";
+            this.json = json;
+            this.jsonGzip = jsonGzip;
+        }
+
+        /**
+         * Verifica o cabeçalho If-None-Match usando a comparação fraca exigida pela RFC 9110.
+         * Vale o ETag de qualquer uma das representações, já que o conteúdo é o mesmo.
+         */
+        public boolean correspondeA(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidata = tag.trim();
+                if (candidata.equals("*")) {
+                    return true;
+                }
+                if (candidata.startsWith("W/")) {
+                    candidata = candidata.substring(2);
+                }
+                if (candidata.equals(etag) || candidata.equals(etagGzip)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public long getVersao() {
+            return versao;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getEtagGzip() {
+            return etagGzip;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getJsonGzip() {
+            return jsonGzip;
+        }
+    }
+}
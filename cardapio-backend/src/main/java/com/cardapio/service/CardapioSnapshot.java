@@ -0,0 +1,42 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.dto.ResumoCardapio;
+
+import java.util.List;
+
+/**
+ * Fotografia imutável do cardápio ativo, já convertida para DTOs.
+ * A versão muda sempre que uma alteração no cardápio é confirmada,
+ * permitindo que outros componentes detectem quando seus dados derivados estão desatualizados.
+ */
+public final class CardapioSnapshot {
+
+    private final long versao;
+    private final List<ItemCardapioDTO> itens;
+
+    // Resumo dos itens no banco no momento da leitura; nulo quando o snapshot não veio do banco
+    private final ResumoCardapio resumo;
+
+    public CardapioSnapshot(long versao, List<ItemCardapioDTO> itens) {
+        this(versao, itens, null);
+    }
+
+    CardapioSnapshot(long versao, List<ItemCardapioDTO> itens, ResumoCardapio resumo) {
+        this.versao = versao;
+        this.itens = List.copyOf(itens);
+        this.resumo = resumo;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public List<ItemCardapioDTO> getItens() {
+        return itens;
+    }
+
+    ResumoCardapio getResumo() {
+        return resumo;
+    }
+}
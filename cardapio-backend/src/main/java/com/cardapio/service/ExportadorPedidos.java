@@ -0,0 +1,183 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta os pedidos de um período lendo o banco por um cursor somente para frente e escrevendo
+ * cada linha na saída assim que chega. A memória usada não depende do tamanho do período:
+ * a projeção não cria entidades gerenciadas e no máximo um pedido fica montado por vez.
+ */
+@Service
+public class ExportadorPedidos {
+    
+    private static final String CABECALHO_CSV = "pedido_id,mesa,status,data_criacao,data_atualizacao,valor_total," +
+            "quantidade_itens,observacoes,linha_id,item_id,item,quantidade,preco_unitario,subtotal,observacoes_item";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Linhas trazidas do banco a cada ida do cursor
+    @Value("${cardapio.exportacao.tamanho-lote:1000}")
+    private int tamanhoLote;
+    
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+        
+        private final String tipoConteudo;
+        private final String extensao;
+        
+        Formato(String tipoConteudo, String extensao) {
+            this.tipoConteudo = tipoConteudo;
+            this.extensao = extensao;
+        }
+        
+        public static Formato deParametro(String valor) {
+            for (Formato formato : values()) {
+                if (formato.extensao.equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportação inválido: " + valor);
+        }
+        
+        public String getTipoConteudo() {
+            return tipoConteudo;
+        }
+        
+        public String getExtensao() {
+            return extensao;
+        }
+    }
+    
+    /**
+     * Escreve em {@code saida} os pedidos criados em [inicio, fim), em ordem de criação.
+     * CSV traz uma linha por item (os dados do pedido se repetem); NDJSON, um pedido com seus itens por linha.
+     *
+     * @return quantidade de pedidos exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDateTime inicio, LocalDateTime fim, Formato formato, OutputStream saida)
+            throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        long pedidos;
+        try (Stream<PedidoLinhaQuadro> linhas = consultarLinhas(inicio, fim)) {
+            pedidos = formato == Formato.CSV
+                    ? escreverCsv(linhas.iterator(), escritor)
+                    : escreverNdjson(linhas.iterator(), escritor);
+        }
+        escritor.flush();
+        return pedidos;
+    }
+    
+    private Stream<PedidoLinhaQuadro> consultarLinhas(LocalDateTime inicio, LocalDateTime fim) {
+        return entityManager.createQuery(
+                        "SELECT new com.cardapio.dto.PedidoLinhaQuadro(p.id, p.mesa, p.status, p.dataCriacao, " +
+                        "p.dataAtualizacao, p.observacoes, p.valorTotal, p.quantidadeItens, p.versao, pi.id, i.id, i.nome, " +
+                        "pi.quantidade, pi.precoUnitario, pi.observacoesItem) " +
+                        "FROM Pedido p LEFT JOIN p.itens pi LEFT JOIN pi.item i " +
+                        "WHERE p.dataCriacao >= :inicio AND p.dataCriacao < :fim " +
+                        "ORDER BY p.dataCriacao ASC, p.id ASC, pi.id ASC", PedidoLinhaQuadro.class)
+                .setParameter("inicio", inicio)
+                .setParameter("fim", fim)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanhoLote)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    private long escreverCsv(Iterator<PedidoLinhaQuadro> linhas, Writer escritor) throws IOException {
+        escritor.write(CABECALHO_CSV);
+        escritor.write('\n');
+        
+        long pedidos = 0;
+        Long pedidoAnterior = null;
+        while (linhas.hasNext()) {
+            PedidoLinhaQuadro linha = linhas.next();
+            if (!linha.getPedidoId().equals(pedidoAnterior)) {
+                pedidoAnterior = linha.getPedidoId();
+                pedidos++;
+            }
+            BigDecimal subtotal = linha.getLinhaId() != null
+                    ? linha.getPrecoUnitario().multiply(BigDecimal.valueOf(linha.getQuantidade()))
+                    : null;
+            escreverCampos(escritor, linha.getPedidoId(), linha.getMesa(), linha.getStatus(), linha.getDataCriacao(),
+                    linha.getDataAtualizacao(), linha.getValorTotal(), linha.getQuantidadeItens(),
+                    linha.getObservacoes(), linha.getLinhaId(), linha.getItemId(), linha.getNomeItem(),
+                    linha.getQuantidade(), linha.getPrecoUnitario(), subtotal, linha.getObservacoesItem());
+        }
+        return pedidos;
+    }
+    
+    // As linhas chegam agrupadas por pedido; cada pedido é escrito assim que o seguinte começa
+    private long escreverNdjson(Iterator<PedidoLinhaQuadro> linhas, Writer escritor) throws IOException {
+        long pedidos = 0;
+        PedidoDTO atual = null;
+        while (linhas.hasNext()) {
+            PedidoLinhaQuadro linha = linhas.next();
+            if (atual == null || !atual.getId().equals(linha.getPedidoId())) {
+                if (atual != null) {
+                    escreverJson(escritor, atual);
+                }
+                atual = linha.paraPedido();
+                pedidos++;
+            }
+            if (linha.getLinhaId() != null) {
+                atual.getItens().add(linha.paraItem());
+            }
+        }
+        if (atual != null) {
+            escreverJson(escritor, atual);
+        }
+        return pedidos;
+    }
+    
+    private void escreverJson(Writer escritor, PedidoDTO pedido) throws IOException {
+        escritor.write(objectMapper.writeValueAsString(pedido));
+        escritor.write('\n');
+    }
+    
+    private static void escreverCampos(Writer escritor, Object... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                escritor.write(',');
+            }
+            if (campos[i] != null) {
+                escritor.write(escaparCsv(campos[i] instanceof BigDecimal valor
+                        ? valor.toPlainString()
+                        : String.valueOf(campos[i])));
+            }
+        }
+        escritor.write('\n');
+    }
+    
+    // RFC 4180: campos com vírgula, aspas ou quebra de linha vão entre aspas, com as aspas duplicadas
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,219 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.exception.ConflitoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Garante que um pedido reenviado com a mesma Idempotency-Key (toque duplo, retentativa em Wi-Fi instável)
+ * seja criado uma única vez. Por chave ficam apenas o hash da requisição e o ID do pedido criado, com validade
+ * e quantidade máxima. Repetições devolvem o pedido original sem passar de novo por
+ * {@link PedidoService#criarPedido(PedidoDTO)}, inclusive quando chegam ao mesmo tempo em outra thread:
+ * a segunda espera a primeira terminar.
+ * <p>
+ * O registro é local ao nó; atrás de um balanceador, as repetições precisam chegar ao mesmo nó.
+ */
+@Component
+public class IdempotenciaPedidos {
+
+    public static final String CABECALHO = "Idempotency-Key";
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cardapio.idempotencia.validade:86400000}")
+    private long validade;
+
+    @Value("${cardapio.idempotencia.tamanho-maximo:10000}")
+    private int tamanhoMaximo;
+
+    // Quanto uma repetição espera pela requisição original ainda em andamento
+    @Value("${cardapio.idempotencia.espera-maxima:10000}")
+    private long esperaMaxima;
+
+    private final Map<String, Registro> registros = new ConcurrentHashMap<>();
+
+    // Registros concluídos na ordem de conclusão; com a mesma validade para todos, é também a ordem de vencimento
+    private final ConcurrentLinkedQueue<Concluido> concluidos = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder criados = new LongAdder();
+    private final LongAdder repetidos = new LongAdder();
+    private final LongAdder expulsoes = new LongAdder();
+
+    /**
+     * Cria o pedido na primeira vez em que a chave aparece; nas seguintes devolve o mesmo pedido, no estado atual.
+     * A mesma chave com outro conteúdo é rejeitada. Falhas não ficam registradas: a próxima tentativa executa de novo.
+     */
+    public Resultado criar(String chave, PedidoDTO pedidoDTO) {
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException(
+                    CABECALHO + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        String hash = hashRequisicao(pedidoDTO);
+
+        Registro novo = new Registro(hash);
+        Registro existente;
+        while ((existente = registros.putIfAbsent(chave, novo)) != null) {
+            if (!existente.expirado(System.currentTimeMillis())) {
+                return repetir(existente, hash);
+            }
+            registros.remove(chave, existente);
+        }
+        liberarEspaco();
+
+        try {
+            PedidoDTO criado = pedidoService.criarPedido(pedidoDTO);
+            novo.concluir(criado.getId(), System.currentTimeMillis() + validade);
+            concluidos.offer(new Concluido(chave, novo));
+            criados.increment();
+            return new Resultado(criado, false);
+        } catch (RuntimeException e) {
+            registros.remove(chave, novo);
+            novo.pedidoId.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public Map<String, Long> estatisticas() {
+        Map<String, Long> estatisticas = new LinkedHashMap<>();
+        estatisticas.put("tamanho", (long) registros.size());
+        estatisticas.put("criados", criados.sum());
+        estatisticas.put("repetidos", repetidos.sum());
+        estatisticas.put("expulsoes", expulsoes.sum());
+        return estatisticas;
+    }
+
+    private Resultado repetir(Registro registro, String hash) {
+        if (!registro.hashRequisicao.equals(hash)) {
+            throw new IllegalArgumentException(CABECALHO + " já usada em um pedido com outro conteúdo");
+        }
+        Long pedidoId;
+        try {
+            pedidoId = registro.pedidoId.get(esperaMaxima, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflitoException("Pedido com esta " + CABECALHO + " ainda está em processamento");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflitoException("Pedido com esta " + CABECALHO + " ainda está em processamento");
+        } catch (ExecutionException e) {
+            // A requisição original falhou; a repetição, idêntica, recebe o mesmo erro
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Erro ao criar pedido", e.getCause());
+        }
+        repetidos.increment();
+        return new Resultado(pedidoService.buscarPorId(pedidoId), true);
+    }
+
+    // Descarta, pela frente da fila, os vencidos e, se ainda faltar espaço, os concluídos mais antigos.
+    // Os em andamento não estão na fila e nunca são descartados; cada descarte custa O(1)
+    private void liberarEspaco() {
+        long agora = System.currentTimeMillis();
+        Concluido maisAntigo;
+        while ((maisAntigo = concluidos.peek()) != null
+                && (maisAntigo.registro.expirado(agora) || registros.size() > tamanhoMaximo)) {
+            // Com outra thread liberando espaço ao mesmo tempo, sai o mais antigo que ainda estiver na fila
+            if ((maisAntigo = concluidos.poll()) == null) {
+                return;
+            }
+            // Só remove se a chave ainda aponta para este registro (não foi recriada depois de vencer)
+            if (registros.remove(maisAntigo.chave, maisAntigo.registro) && !maisAntigo.registro.expirado(agora)) {
+                expulsoes.increment();
+            }
+        }
+    }
+
+    // Só o que o cliente envia entra no hash; campos preenchidos pelo servidor (datas, totais) ficam de fora
+    private String hashRequisicao(PedidoDTO pedidoDTO) {
+        List<Object> conteudo = new ArrayList<>();
+        conteudo.add(pedidoDTO.getMesa());
+        conteudo.add(pedidoDTO.getObservacoes());
+        if (pedidoDTO.getItens() != null) {
+            for (PedidoItemDTO item : pedidoDTO.getItens()) {
+                conteudo.add(Arrays.asList(item.getItemId(), item.getQuantidade(), item.getPrecoUnitario(),
+                        item.getObservacoesItem()));
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(conteudo));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao calcular hash do pedido", e);
+        }
+    }
+
+    public static final class Resultado {
+        private final PedidoDTO pedido;
+        private final boolean repetido;
+
+        private Resultado(PedidoDTO pedido, boolean repetido) {
+            this.pedido = pedido;
+            this.repetido = repetido;
+        }
+
+        public PedidoDTO getPedido() {
+            return pedido;
+        }
+
+        public boolean isRepetido() {
+            return repetido;
+        }
+    }
+
+    private static final class Concluido {
+        private final String chave;
+        private final Registro registro;
+
+        private Concluido(String chave, Registro registro) {
+            this.chave = chave;
+            this.registro = registro;
+        }
+    }
+
+    private static final class Registro {
+        private final String hashRequisicao;
+        private final CompletableFuture<Long> pedidoId = new CompletableFuture<>();
+        // Em andamento não vence; a validade começa a contar quando o pedido é criado
+        private volatile long expiraEm = Long.MAX_VALUE;
+
+        private Registro(String hashRequisicao) {
+            this.hashRequisicao = hashRequisicao;
+        }
+
+        private void concluir(Long id, long expiraEm) {
+            this.expiraEm = expiraEm;
+            pedidoId.complete(id);
+        }
+
+        private boolean expirado(long agora) {
+            return expiraEm <= agora;
+        }
+    }
+}
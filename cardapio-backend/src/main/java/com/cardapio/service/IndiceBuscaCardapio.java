@@ -0,0 +1,498 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.ItemCardapioDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido imutável sobre nome e descrição dos itens ativos do cardápio, insensível a
+ * maiúsculas e acentos. Cada palavra contribui com seus trigramas (busca por trecho) e com seus
+ * prefixos de uma e duas letras (termos curtos, enquanto o cliente ainda está digitando).
+ * <p>
+ * Os itens ficam em ordem alfabética, cada um com uma posição numérica espaçada das vizinhas, e as listas
+ * de cada chave guardam essas posições. Os candidatos já chegam na ordem de desempate, então a busca pode
+ * parar assim que o limite de resultados com a pontuação máxima é atingido.
+ * <p>
+ * {@link #atualizar(CardapioSnapshot)} corrige apenas as listas das chaves dos itens incluídos, removidos ou
+ * com texto alterado; os novos itens ocupam posições nas folgas entre os vizinhos. Itens que só mudaram
+ * preço, imagem etc. trocam de DTO sem tocar nas listas.
+ */
+public final class IndiceBuscaCardapio {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern ESPACOS = Pattern.compile(" ");
+
+    // Chaves codificadas como inteiros: 0 marca a posição vazia dos prefixos, 1-26 letras e 27-36 dígitos
+    private static final int ALFABETO = 37;
+    private static final int TOTAL_CHAVES = ALFABETO * ALFABETO * ALFABETO;
+
+    // Pontuação de cada termo da busca, da correspondência mais forte para a mais fraca
+    private static final int PALAVRA_DO_NOME = 8;
+    private static final int PREFIXO_DO_NOME = 4;
+    private static final int TRECHO_DO_NOME = 2;
+    private static final int TRECHO_DA_DESCRICAO = 1;
+
+    // Resultados devolvidos por busca, qualquer que seja o limite pedido
+    public static final int LIMITE_MAXIMO = 100;
+
+    // Com mais de 1/4 dos itens incluídos, removidos ou alterados, montar o índice de novo sai mais barato
+    private static final int FRACAO_ATUALIZACAO_PARCIAL = 4;
+
+    private static final Comparator<Documento> ORDEM_ALFABETICA = Comparator
+            .comparing((Documento documento) -> documento.nome)
+            .thenComparing(documento -> documento.item.getId());
+
+    private final long versao;
+    private final Documento[] documentos;
+    // Posição de cada documento: crescente, com folgas para inserções entre vizinhos
+    private final int[] posicoes;
+    // Chave -> posições em ordem crescente (nulo quando nenhum item tem a chave)
+    private final int[][] postagens;
+
+    private IndiceBuscaCardapio(long versao, Documento[] documentos, int[] posicoes, int[][] postagens) {
+        this.versao = versao;
+        this.documentos = documentos;
+        this.posicoes = posicoes;
+        this.postagens = postagens;
+    }
+
+    public static IndiceBuscaCardapio construir(CardapioSnapshot snapshot) {
+        Documento[] documentos = snapshot.getItens().stream().map(Documento::new).toArray(Documento[]::new);
+        return montar(snapshot.getVersao(), documentos);
+    }
+
+    /**
+     * Índice da versão do {@code snapshot}, reaproveitando deste o que não mudou.
+     */
+    public IndiceBuscaCardapio atualizar(CardapioSnapshot snapshot) {
+        Map<Long, Integer> indicePorId = new HashMap<>(documentos.length * 4 / 3 + 1);
+        for (int i = 0; i < documentos.length; i++) {
+            indicePorId.put(documentos[i].item.getId(), i);
+        }
+
+        // Itens com o mesmo texto mantêm a posição; os demais saem e entram de novo como documentos novos
+        Documento[] atuais = documentos.clone();
+        boolean[] mantidos = new boolean[documentos.length];
+        int quantidadeMantidos = 0;
+        List<Documento> entrando = new ArrayList<>();
+        for (ItemCardapioDTO item : snapshot.getItens()) {
+            Integer indice = indicePorId.get(item.getId());
+            if (indice != null && documentos[indice].mesmoTexto(item)) {
+                mantidos[indice] = true;
+                quantidadeMantidos++;
+                if (documentos[indice].item != item) {
+                    atuais[indice] = documentos[indice].comItem(item);
+                }
+            } else {
+                entrando.add(new Documento(item));
+            }
+        }
+
+        int saindo = documentos.length - quantidadeMantidos;
+        if (saindo == 0 && entrando.isEmpty()) {
+            return new IndiceBuscaCardapio(snapshot.getVersao(), atuais, posicoes, postagens);
+        }
+        int total = quantidadeMantidos + entrando.size();
+        entrando.sort(ORDEM_ALFABETICA);
+        Documento[] novos = intercalar(atuais, mantidos, entrando, total);
+        if ((saindo + entrando.size()) * FRACAO_ATUALIZACAO_PARCIAL > total) {
+            return montar(snapshot.getVersao(), novos);
+        }
+
+        int[] novasPosicoes = new int[total];
+        boolean[] incluidos = new boolean[total];
+        for (int i = 0, k = 0; k < total; k++) {
+            while (i < atuais.length && !mantidos[i]) {
+                i++;
+            }
+            if (i < atuais.length && novos[k] == atuais[i]) {
+                novasPosicoes[k] = posicoes[i++];
+            } else {
+                incluidos[k] = true;
+            }
+        }
+        if (!distribuirPosicoes(novasPosicoes, incluidos)) {
+            return montar(snapshot.getVersao(), novos); // Sem folga entre os vizinhos: renumera tudo
+        }
+
+        // Só as listas das chaves dos documentos que saíram ou entraram são copiadas
+        Map<Integer, IntLista> remocoes = new HashMap<>();
+        for (int i = 0; i < documentos.length; i++) {
+            if (!mantidos[i]) {
+                for (int chave : documentos[i].chaves) {
+                    remocoes.computeIfAbsent(chave, c -> new IntLista()).adicionar(posicoes[i]);
+                }
+            }
+        }
+        Map<Integer, IntLista> adicoes = new HashMap<>();
+        for (int k = 0; k < total; k++) {
+            if (incluidos[k]) {
+                for (int chave : novos[k].chaves) {
+                    adicoes.computeIfAbsent(chave, c -> new IntLista()).adicionar(novasPosicoes[k]);
+                }
+            }
+        }
+        int[][] novasPostagens = postagens.clone();
+        remocoes.forEach((chave, posicoesRemovidas) -> novasPostagens[chave] =
+                corrigir(postagens[chave], posicoesRemovidas.valores(), adicoes.containsKey(chave)
+                        ? adicoes.get(chave).valores() : new int[0]));
+        adicoes.forEach((chave, posicoesIncluidas) -> {
+            if (!remocoes.containsKey(chave)) {
+                novasPostagens[chave] = corrigir(postagens[chave], new int[0], posicoesIncluidas.valores());
+            }
+        });
+        return new IndiceBuscaCardapio(snapshot.getVersao(), novos, novasPosicoes, novasPostagens);
+    }
+
+    private static IndiceBuscaCardapio montar(long versao, Documento[] documentos) {
+        // O cardápio já vem ordenado pelo nome, então a ordenação costuma ser praticamente linear
+        Arrays.sort(documentos, ORDEM_ALFABETICA);
+        int espacamento = Integer.MAX_VALUE / (documentos.length + 1);
+        int[] posicoes = new int[documentos.length];
+        for (int i = 0; i < documentos.length; i++) {
+            posicoes[i] = (i + 1) * espacamento;
+        }
+
+        int[] tamanhos = new int[TOTAL_CHAVES];
+        for (Documento documento : documentos) {
+            for (int chave : documento.chaves) {
+                tamanhos[chave]++;
+            }
+        }
+        int[][] postagens = new int[TOTAL_CHAVES][];
+        for (int chave = 0; chave < TOTAL_CHAVES; chave++) {
+            if (tamanhos[chave] > 0) {
+                postagens[chave] = new int[tamanhos[chave]];
+            }
+        }
+        int[] preenchidas = new int[TOTAL_CHAVES];
+        for (int i = 0; i < documentos.length; i++) {
+            for (int chave : documentos[i].chaves) {
+                postagens[chave][preenchidas[chave]++] = posicoes[i];
+            }
+        }
+        return new IndiceBuscaCardapio(versao, documentos, posicoes, postagens);
+    }
+
+    // Documentos mantidos (na ordem atual) intercalados com os que entram, em ordem alfabética
+    private static Documento[] intercalar(Documento[] atuais, boolean[] mantidos, List<Documento> entrando, int total) {
+        Documento[] resultado = new Documento[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            while (i < atuais.length && !mantidos[i]) {
+                i++;
+            }
+            if (j < entrando.size() && (i == atuais.length || ORDEM_ALFABETICA.compare(entrando.get(j), atuais[i]) < 0)) {
+                resultado[k] = entrando.get(j++);
+            } else {
+                resultado[k] = atuais[i++];
+            }
+        }
+        return resultado;
+    }
+
+    // Reparte a folga entre os vizinhos mantidos pelos documentos incluídos; falso quando não há folga
+    private static boolean distribuirPosicoes(int[] posicoes, boolean[] incluidos) {
+        for (int inicio = 0; inicio < posicoes.length; inicio++) {
+            if (!incluidos[inicio]) {
+                continue;
+            }
+            int fim = inicio;
+            while (fim < posicoes.length && incluidos[fim]) {
+                fim++;
+            }
+            long antes = inicio == 0 ? 0 : posicoes[inicio - 1];
+            long depois = fim == posicoes.length ? Integer.MAX_VALUE : posicoes[fim];
+            int quantidade = fim - inicio;
+            if (depois - antes <= quantidade) {
+                return false;
+            }
+            for (int r = 0; r < quantidade; r++) {
+                posicoes[inicio + r] = (int) (antes + (depois - antes) * (r + 1) / (quantidade + 1));
+            }
+            inicio = fim;
+        }
+        return true;
+    }
+
+    // Lista da chave sem as posições removidas e com as incluídas; todas as entradas já vêm em ordem crescente
+    private static int[] corrigir(int[] lista, int[] remover, int[] adicionar) {
+        int tamanhoAtual = lista == null ? 0 : lista.length;
+        int[] resultado = new int[tamanhoAtual - remover.length + adicionar.length];
+        int i = 0;
+        int r = 0;
+        int a = 0;
+        int n = 0;
+        while (i < tamanhoAtual || a < adicionar.length) {
+            if (i < tamanhoAtual && r < remover.length && lista[i] == remover[r]) {
+                i++;
+                r++;
+            } else if (a < adicionar.length && (i == tamanhoAtual || adicionar[a] < lista[i])) {
+                resultado[n++] = adicionar[a++];
+            } else {
+                resultado[n++] = lista[i++];
+            }
+        }
+        return resultado.length == 0 ? null : resultado;
+    }
+
+    /**
+     * Itens que contêm todos os termos da busca (no nome ou na descrição), dos mais relevantes para os menos:
+     * palavra inteira do nome, início de palavra do nome, trecho do nome e, por fim, trecho da descrição.
+     * Empates ficam em ordem alfabética.
+     */
+    public List<ItemCardapioDTO> buscar(String texto, int limite) {
+        String[] termos = termos(normalizar(texto));
+        if (termos.length == 0 || limite < 1) {
+            return List.of();
+        }
+        limite = Math.min(limite, LIMITE_MAXIMO);
+
+        int[] candidatos = null;
+        for (int chave : chavesDaBusca(termos)) {
+            int[] lista = postagens[chave];
+            if (lista == null) {
+                return List.of();
+            }
+            candidatos = candidatos == null ? lista : intersecao(candidatos, lista);
+            if (candidatos.length == 0) {
+                return List.of();
+            }
+        }
+
+        // Um grupo por pontuação; os candidatos chegam em ordem alfabética, então cada grupo já está ordenado
+        int maximo = PALAVRA_DO_NOME * termos.length;
+        List<List<ItemCardapioDTO>> porPontuacao = new ArrayList<>(maximo + 1);
+        for (int pontos = 0; pontos <= maximo; pontos++) {
+            porPontuacao.add(new ArrayList<>());
+        }
+        int de = 0;
+        for (int posicao : candidatos) {
+            int indice = Arrays.binarySearch(posicoes, de, posicoes.length, posicao);
+            de = indice + 1;
+            Documento documento = documentos[indice];
+            int pontos = documento.pontuar(termos);
+            List<ItemCardapioDTO> grupo = porPontuacao.get(pontos);
+            if (pontos > 0 && grupo.size() < limite) {
+                grupo.add(documento.item);
+                if (pontos == maximo && grupo.size() == limite) {
+                    break;
+                }
+            }
+        }
+
+        List<ItemCardapioDTO> resultado = new ArrayList<>(Math.min(limite, candidatos.length));
+        for (int pontos = maximo; pontos > 0 && resultado.size() < limite; pontos--) {
+            List<ItemCardapioDTO> grupo = porPontuacao.get(pontos);
+            resultado.addAll(grupo.subList(0, Math.min(grupo.size(), limite - resultado.size())));
+        }
+        return resultado;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public int getQuantidadeItens() {
+        return documentos.length;
+    }
+
+    // Minúsculas, sem acentos (ç vira c), com qualquer separador reduzido a um espaço
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NAO_ALFANUMERICO.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String[] termos(String normalizado) {
+        return normalizado.isEmpty() ? new String[0] : ESPACOS.split(normalizado);
+    }
+
+    private static int codigo(char c) {
+        return c <= '9' ? c - '0' + 27 : c - 'a' + 1;
+    }
+
+    private static int chave(int primeiro, int segundo, int terceiro) {
+        return (primeiro * ALFABETO + segundo) * ALFABETO + terceiro;
+    }
+
+    // Prefixos de uma e duas letras (com posições vazias à esquerda) e todos os trigramas da palavra
+    private static void adicionarChaves(String palavra, IntLista chaves) {
+        chaves.adicionar(chave(0, 0, codigo(palavra.charAt(0))));
+        if (palavra.length() >= 2) {
+            chaves.adicionar(chave(0, codigo(palavra.charAt(0)), codigo(palavra.charAt(1))));
+        }
+        for (int i = 0; i + 3 <= palavra.length(); i++) {
+            chaves.adicionar(chave(codigo(palavra.charAt(i)), codigo(palavra.charAt(i + 1)),
+                    codigo(palavra.charAt(i + 2))));
+        }
+    }
+
+    // Termos curtos casam com o início das palavras; os demais, com qualquer trecho que contenha seus trigramas
+    private int[] chavesDaBusca(String[] termos) {
+        IntLista chaves = new IntLista();
+        for (String termo : termos) {
+            if (termo.length() < 3) {
+                int primeiro = codigo(termo.charAt(0));
+                chaves.adicionar(termo.length() == 1 ? chave(0, 0, primeiro) : chave(0, primeiro, codigo(termo.charAt(1))));
+            } else {
+                for (int i = 0; i + 3 <= termo.length(); i++) {
+                    chaves.adicionar(chave(codigo(termo.charAt(i)), codigo(termo.charAt(i + 1)),
+                            codigo(termo.charAt(i + 2))));
+                }
+            }
+        }
+        // Intersecção a partir das listas mais curtas; chaves ausentes primeiro encerram a busca de imediato
+        return Arrays.stream(chaves.distintas()).boxed()
+                .sorted(Comparator.comparingInt(chave -> postagens[chave] == null ? 0 : postagens[chave].length))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int[] intersecao(int[] a, int[] b) {
+        int[] resultado = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == resultado.length ? resultado : Arrays.copyOf(resultado, n);
+    }
+
+    private static final class Documento {
+
+        private final ItemCardapioDTO item;
+        private final String nome;
+        private final String descricao;
+        private final String[] palavrasNome;
+        private final String[] palavrasDescricao;
+        private final int[] chaves;
+
+        private Documento(ItemCardapioDTO item) {
+            this.item = item;
+            this.nome = normalizar(item.getNome());
+            this.descricao = normalizar(item.getDescricao());
+            this.palavrasNome = termos(nome);
+            this.palavrasDescricao = termos(descricao);
+            IntLista lista = new IntLista();
+            for (String palavra : palavrasNome) {
+                adicionarChaves(palavra, lista);
+            }
+            for (String palavra : palavrasDescricao) {
+                adicionarChaves(palavra, lista);
+            }
+            this.chaves = lista.distintas();
+        }
+
+        private Documento(Documento base, ItemCardapioDTO item) {
+            this.item = item;
+            this.nome = base.nome;
+            this.descricao = base.descricao;
+            this.palavrasNome = base.palavrasNome;
+            this.palavrasDescricao = base.palavrasDescricao;
+            this.chaves = base.chaves;
+        }
+
+        private Documento comItem(ItemCardapioDTO novo) {
+            return new Documento(this, novo);
+        }
+
+        private boolean mesmoTexto(ItemCardapioDTO outro) {
+            return Objects.equals(item.getNome(), outro.getNome())
+                    && Objects.equals(item.getDescricao(), outro.getDescricao());
+        }
+
+        // Zero quando algum termo não aparece (as chaves só garantem candidatos)
+        private int pontuar(String[] termos) {
+            int total = 0;
+            for (String termo : termos) {
+                int pontos = pontuarTermo(termo);
+                if (pontos == 0) {
+                    return 0;
+                }
+                total += pontos;
+            }
+            return total;
+        }
+
+        private int pontuarTermo(String termo) {
+            int melhor = 0;
+            for (String palavra : palavrasNome) {
+                if (palavra.equals(termo)) {
+                    return PALAVRA_DO_NOME;
+                }
+                if (palavra.startsWith(termo)) {
+                    melhor = PREFIXO_DO_NOME;
+                }
+            }
+            if (melhor > 0) {
+                return melhor;
+            }
+            if (termo.length() < 3) {
+                // Termos curtos valem apenas como início de palavra
+                for (String palavra : palavrasDescricao) {
+                    if (palavra.startsWith(termo)) {
+                        return TRECHO_DA_DESCRICAO;
+                    }
+                }
+                return 0;
+            }
+            if (nome.contains(termo)) {
+                return TRECHO_DO_NOME;
+            }
+            return descricao.contains(termo) ? TRECHO_DA_DESCRICAO : 0;
+        }
+    }
+
+    // Lista de int sem boxing, usada na extração das chaves e na correção das listas
+    private static final class IntLista {
+
+        private int[] valores = new int[32];
+        private int tamanho;
+
+        private void adicionar(int valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        private int[] valores() {
+            return Arrays.copyOf(valores, tamanho);
+        }
+
+        private int[] distintas() {
+            int[] ordenados = Arrays.copyOf(valores, tamanho);
+            Arrays.sort(ordenados);
+            int n = 0;
+            for (int i = 0; i < ordenados.length; i++) {
+                if (i == 0 || ordenados[i] != ordenados[i - 1]) {
+                    ordenados[n++] = ordenados[i];
+                }
+            }
+            return Arrays.copyOf(ordenados, n);
+        }
+    }
+}
@@ -1,34 +1,85 @@
 package com.cardapio.service;
 
 import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.dto.ResumoCardapio;
 import com.cardapio.exception.RecursoNaoEncontradoException;
 import com.cardapio.mapper.ItemCardapioMapper;
 import com.cardapio.model.ItemCardapio;
 import com.cardapio.repository.ItemCardapioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class MenuService {
 
+    private static final Logger log = LoggerFactory.getLogger(MenuService.class);
+
     @Autowired
     private ItemCardapioRepository itemCardapioRepository;
 
     @Autowired
     private ItemCardapioMapper itemCardapioMapper;
 
-    @Transactional(readOnly = true)
+    // Versão atual do cardápio, incrementada a cada alteração confirmada
+    private final AtomicLong versaoCardapio = new AtomicLong();
+
+    // Cardápio ativo já mapeado, servido sem bloqueio aos leitores
+    private final AtomicReference<CardapioSnapshot> snapshotCardapio = new AtomicReference<>();
+
+    // Alterações feitas em outra instância não passam pelo afterCommit deste nó; no máximo uma vez por
+    // intervalo, o resumo dos itens ativos no banco é comparado com o do snapshot. Zero desliga a conferência
+    @Value("${cardapio.menu.intervalo-verificacao:5000}")
+    private long intervaloVerificacao;
+
+    private final AtomicLong proximaVerificacaoEm = new AtomicLong();
+
+    // SUPPORTS: quando o snapshot está válido nenhuma transação (nem conexão) é aberta
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ItemCardapioDTO> listarCardapioAtivo() {
-        List<ItemCardapio> itens = itemCardapioRepository.findAllAtivosOrdenados();
-        return itens.stream()
+        return obterSnapshotCardapio().getItens();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CardapioSnapshot obterSnapshotCardapio() {
+        conferirComBanco();
+        CardapioSnapshot atual = snapshotCardapio.get();
+        long versao = versaoCardapio.get();
+        if (atual != null && atual.getVersao() == versao) {
+            return atual;
+        }
+
+        List<ItemCardapio> ativos = itemCardapioRepository.findAllAtivosOrdenados();
+        List<ItemCardapioDTO> itens = ativos.stream()
                 .map(itemCardapioMapper::toDTO)
                 .collect(Collectors.toList());
+        CardapioSnapshot novo = new CardapioSnapshot(versao, itens, resumir(ativos));
+
+        // Só publica se nenhuma alteração foi confirmada durante a reconstrução
+        if (versaoCardapio.get() == versao) {
+            snapshotCardapio.compareAndSet(atual, novo);
+        }
+        return novo;
+    }
+
+    // Consultada a cada requisição pelos caches derivados; só vai ao banco na conferência periódica
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public long getVersaoCardapio() {
+        conferirComBanco();
+        return versaoCardapio.get();
     }
 
     @Transactional(readOnly = true)
@@ -46,19 +97,12 @@ public class MenuService {
         return itemCardapioMapper.toDTO(item);
     }
 
-    @Transactional(readOnly = true)
-    public List<ItemCardapioDTO> buscarPorNome(String nome) {
-        List<ItemCardapio> itens = itemCardapioRepository.findByNomeContainingAndAtivoTrue(nome);
-        return itens.stream()
-                .map(itemCardapioMapper::toDTO)
-                .collect(Collectors.toList());
-    }
-
     public ItemCardapioDTO adicionarItem(ItemCardapioDTO itemDTO) {
         validarItem(itemDTO);
 
         ItemCardapio item = itemCardapioMapper.toEntity(itemDTO);
         ItemCardapio itemSalvo = itemCardapioRepository.save(item);
+        invalidarCardapioAposCommit();
 
         return itemCardapioMapper.toDTO(itemSalvo);
     }
@@ -71,6 +115,7 @@ public class MenuService {
 
         itemCardapioMapper.updateEntityFromDTO(itemDTO, itemExistente);
         ItemCardapio itemAtualizado = itemCardapioRepository.save(itemExistente);
+        invalidarCardapioAposCommit();
 
         return itemCardapioMapper.toDTO(itemAtualizado);
     }
@@ -82,6 +127,7 @@ public class MenuService {
         // Soft delete - apenas marcar como inativo
         item.setAtivo(false);
         itemCardapioRepository.save(item);
+        invalidarCardapioAposCommit();
     }
 
     public void ativarItem(Long id) {
@@ -90,6 +136,7 @@ public class MenuService {
 
         item.setAtivo(true);
         itemCardapioRepository.save(item);
+        invalidarCardapioAposCommit();
     }
 
     public void deletarItemPermanentemente(Long id) {
@@ -97,6 +144,64 @@ public class MenuService {
             throw new RecursoNaoEncontradoException("Item não encontrado com ID: " + id);
         }
         itemCardapioRepository.deleteById(id);
+        invalidarCardapioAposCommit();
+    }
+
+    // O snapshot só é descartado depois do commit, para que leitores nunca vejam alterações que sofreram rollback
+    private void invalidarCardapioAposCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidarCardapio();
+                }
+            });
+        } else {
+            invalidarCardapio();
+        }
+    }
+
+    // Uma única thread confere por intervalo; as demais seguem com o snapshot atual sem esperar
+    private void conferirComBanco() {
+        if (intervaloVerificacao <= 0) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        long proxima = proximaVerificacaoEm.get();
+        if (agora < proxima || !proximaVerificacaoEm.compareAndSet(proxima, agora + intervaloVerificacao)) {
+            return;
+        }
+        CardapioSnapshot atual = snapshotCardapio.get();
+        // Sem snapshot válido a próxima leitura já vai ao banco
+        if (atual == null || atual.getResumo() == null || atual.getVersao() != versaoCardapio.get()) {
+            return;
+        }
+        try {
+            ResumoCardapio noBanco = itemCardapioRepository.resumirAtivos();
+            if (!noBanco.equals(atual.getResumo())) {
+                log.debug("Cardápio em memória divergente do banco ({} itens em memória, {} no banco); descartando",
+                        atual.getResumo().getQuantidade(), noBanco.getQuantidade());
+                invalidarCardapio();
+            }
+        } catch (RuntimeException e) {
+            // Banco indisponível: continua servindo o snapshot e tenta de novo no próximo intervalo
+            log.warn("Falha ao conferir o cardápio em memória com o banco", e);
+        }
+    }
+
+    private static ResumoCardapio resumir(List<ItemCardapio> ativos) {
+        long somaVersoes = 0;
+        long somaIds = 0;
+        for (ItemCardapio item : ativos) {
+            somaVersoes += item.getVersao() != null ? item.getVersao() : 0;
+            somaIds += item.getId() != null ? item.getId() : 0;
+        }
+        return new ResumoCardapio((long) ativos.size(), somaVersoes, somaIds);
+    }
+
+    private void invalidarCardapio() {
+        versaoCardapio.incrementAndGet();
+        snapshotCardapio.set(null);
     }
 
     private void validarItem(ItemCardapioDTO itemDTO) {
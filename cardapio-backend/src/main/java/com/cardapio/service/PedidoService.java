@@ -1,29 +1,58 @@
 package com.cardapio.service;
 
+import com.cardapio.dto.CursorPedido;
+import com.cardapio.dto.JanelaPedidosDTO;
 import com.cardapio.dto.PedidoDTO;
 import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.cardapio.dto.ResultadoStatusPedidoDTO;
+import com.cardapio.dto.StatusLoteRequest;
 import com.cardapio.dto.StatusUpdateRequest;
+import com.cardapio.evento.PedidoCriadoEvento;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.evento.StatusPedidosAlteradosEvento;
+import com.cardapio.exception.ConflitoException;
 import com.cardapio.exception.RecursoNaoEncontradoException;
 import com.cardapio.mapper.PedidoMapper;
 import com.cardapio.model.*;
 import com.cardapio.repository.ItemCardapioRepository;
 import com.cardapio.repository.PedidoRepository;
+import com.cardapio.sse.CanalSse;
+import com.cardapio.sse.SseBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PedidoService {
     
+    // Status exibidos no quadro da cozinha
+    private static final List<PedidoStatus> STATUS_QUADRO_COZINHA =
+            List.of(PedidoStatus.RECEBIDO, PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO);
+    
+    // Maior página aceita na listagem por cursor
+    private static final int TAMANHO_MAXIMO_JANELA = 100;
+    
+    // Maior lote aceito na mudança de status em lote
+    private static final int TAMANHO_MAXIMO_LOTE = 100;
+    
     @Autowired
     private PedidoRepository pedidoRepository;
     
@@ -33,23 +62,26 @@ public class PedidoService {
     @Autowired
     private PedidoMapper pedidoMapper;
     
-    // Lista thread-safe para armazenar conexões SSE
-    private final List<SseEmitter> cozinhaEmitters = new CopyOnWriteArrayList<>();
-    private final List<SseEmitter> garcomEmitters = new CopyOnWriteArrayList<>();
+    @Autowired
+    private SseBroadcaster sseBroadcaster;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private QuadroPedidosAtivos quadroPedidosAtivos;
     
     public PedidoDTO criarPedido(PedidoDTO pedidoDTO) {
         validarPedido(pedidoDTO);
         
         Pedido pedido = new Pedido(pedidoDTO.getMesa(), pedidoDTO.getObservacoes());
         
+        // Buscar todos os itens referenciados em uma única consulta
+        Map<Long, ItemCardapio> itensCardapio = buscarItensDoPedido(pedidoDTO.getItens());
+        
         // Processar itens do pedido
         for (PedidoItemDTO itemDTO : pedidoDTO.getItens()) {
-            ItemCardapio itemCardapio = itemCardapioRepository.findById(itemDTO.getItemId())
-                    .orElseThrow(() -> new RecursoNaoEncontradoException("Item não encontrado com ID: " + itemDTO.getItemId()));
-            
-            if (!itemCardapio.getAtivo()) {
-                throw new IllegalArgumentException("Item não está disponível: " + itemCardapio.getNome());
-            }
+            ItemCardapio itemCardapio = itensCardapio.get(itemDTO.getItemId());
             
             PedidoItem pedidoItem = new PedidoItem(
                 itemCardapio, 
@@ -64,8 +96,8 @@ public class PedidoService {
         Pedido pedidoSalvo = pedidoRepository.save(pedido);
         PedidoDTO resultado = pedidoMapper.toDTO(pedidoSalvo);
         
-        // Notificar cozinha sobre novo pedido
-        notificarCozinha(resultado);
+        // A cozinha é notificada somente depois do commit (ver NotificadorPedidos)
+        eventPublisher.publishEvent(new PedidoCriadoEvento(resultado));
         
         return resultado;
     }
@@ -77,24 +109,75 @@ public class PedidoService {
         return pedidoMapper.toDTO(pedido);
     }
     
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<PedidoDTO> listarPedidosPorStatus(PedidoStatus status) {
-        List<Pedido> pedidos = pedidoRepository.findByStatusOrderByDataCriacaoAsc(status);
-        return pedidos.stream()
-                .map(pedidoMapper::toDTO)
-                .collect(Collectors.toList());
+        return listarPedidosPorStatusIn(List.of(status));
     }
     
     @Transactional(readOnly = true)
     public Page<PedidoDTO> listarPedidosPaginados(Pageable pageable) {
-        Page<Pedido> pedidos = pedidoRepository.findAll(pageable);
-        return pedidos.map(pedidoMapper::toDTO);
+        return carregarPagina(pedidoRepository.findIds(pageable));
     }
     
     @Transactional(readOnly = true)
     public Page<PedidoDTO> listarPedidosPorPeriodo(LocalDateTime inicio, LocalDateTime fim, Pageable pageable) {
-        Page<Pedido> pedidos = pedidoRepository.findByDataCriacaoBetween(inicio, fim, pageable);
-        return pedidos.map(pedidoMapper::toDTO);
+        return carregarPagina(pedidoRepository.findIdsByDataCriacaoBetween(inicio, fim, pageable));
+    }
+    
+    /**
+     * Listagem por cursor, mais recentes primeiro: o custo de cada página não depende da profundidade
+     * e pedidos criados durante a navegação não deslocam as páginas seguintes.
+     *
+     * @param cursor token devolvido pela página anterior, ou nulo para a primeira
+     * @param contarTotal se verdadeiro, executa também a contagem de pedidos
+     */
+    @Transactional(readOnly = true)
+    public JanelaPedidosDTO listarPedidosPorCursor(LocalDateTime inicio, LocalDateTime fim, String cursor,
+                                                   int tamanho, boolean contarTotal) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("Tamanho da página deve ser positivo");
+        }
+        int limite = Math.min(tamanho, TAMANHO_MAXIMO_JANELA);
+        // Um pedido a mais indica que existe página seguinte
+        Pageable consulta = PageRequest.of(0, limite + 1);
+        CursorPedido posicao = cursor != null ? CursorPedido.decodificar(cursor) : null;
+        boolean porPeriodo = inicio != null && fim != null;
+        
+        List<Long> ids;
+        if (porPeriodo) {
+            // Na primeira página, qualquer pedido até o fim do período vem antes da posição inicial
+            CursorPedido desde = posicao != null ? posicao : new CursorPedido(fim, Long.MAX_VALUE);
+            ids = pedidoRepository.findIdsPorPeriodoAnterioresA(inicio, fim, desde.getDataCriacao(), desde.getId(),
+                    consulta);
+        } else if (posicao != null) {
+            ids = pedidoRepository.findIdsAnterioresA(posicao.getDataCriacao(), posicao.getId(), consulta);
+        } else {
+            ids = pedidoRepository.findIdsMaisRecentes(consulta);
+        }
+        
+        boolean haMais = ids.size() > limite;
+        List<PedidoDTO> pedidos = carregarNaOrdem(haMais ? ids.subList(0, limite) : ids);
+        String proximo = null;
+        if (haMais) {
+            PedidoDTO ultimo = pedidos.get(pedidos.size() - 1);
+            proximo = new CursorPedido(ultimo.getDataCriacao(), ultimo.getId()).codificar();
+        }
+        Long total = null;
+        if (contarTotal) {
+            total = porPeriodo ? pedidoRepository.countByDataCriacaoBetween(inicio, fim) : pedidoRepository.count();
+        }
+        
+        return new JanelaPedidosDTO(pedidos, proximo, total);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PedidoDTO> listarPedidosAtivosPorMesa(String mesa) {
+        if (quadroPedidosAtivos.estaCarregado()) {
+            return quadroPedidosAtivos.listarPorMesa(mesa);
+        }
+        return listarPedidosPorMesa(mesa).stream()
+                .filter(pedido -> QuadroPedidosAtivos.STATUS_ATIVOS.contains(pedido.getStatus()))
+                .collect(Collectors.toList());
     }
     
     @Transactional(readOnly = true)
@@ -105,101 +188,211 @@ public class PedidoService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Muda o status do pedido se a transição for permitida (ver {@link PedidoStatus#podeMudarPara}).
+     * Com o status atual informado pelo cliente, a troca é um único UPDATE condicional, sem SELECT antes;
+     * sem ele, o status é lido primeiro e só se permite avançar. Se outra requisição chegou antes com a mesma
+     * transição, devolve o pedido sem publicar o evento de novo; se o pedido está em outro status, lança
+     * {@link ConflitoException}.
+     */
     public PedidoDTO atualizarStatusPedido(Long id, StatusUpdateRequest statusRequest) {
-        Pedido pedido = pedidoRepository.findById(id)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Pedido não encontrado com ID: " + id));
-        
-        PedidoStatus statusAnterior = pedido.getStatus();
-        pedido.setStatus(statusRequest.getStatus());
-        
-        Pedido pedidoAtualizado = pedidoRepository.save(pedido);
-        PedidoDTO resultado = pedidoMapper.toDTO(pedidoAtualizado);
-        
-        // Notificar garçom se pedido ficou pronto
-        if (statusRequest.getStatus() == PedidoStatus.PRONTO && statusAnterior != PedidoStatus.PRONTO) {
-            notificarGarcom(resultado);
+        PedidoStatus novoStatus = statusRequest.getStatus();
+        PedidoStatus esperado = statusRequest.getStatusAtual();
+        if (esperado == null) {
+            esperado = buscarStatus(id);
+            if (esperado == novoStatus) {
+                return buscarComItens(id);
+            }
+            // Sem o status visto pelo cliente, um toque atrasado desfaria o avanço feito por outra pessoa
+            if (novoStatus.compareTo(esperado) < 0) {
+                throw new ConflitoException("Para voltar o status do pedido " + id + " informe o statusAtual");
+            }
+        }
+        if (!esperado.podeMudarPara(novoStatus)) {
+            throw new ConflitoException("Transição de status inválida: " + esperado + " para " + novoStatus);
         }
         
-        return resultado;
-    }
-    
-    // Métodos para SSE (Server-Sent Events)
-    public SseEmitter criarConexaoCozinha() {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        cozinhaEmitters.add(emitter);
+        if (pedidoRepository.atualizarStatus(id, esperado, novoStatus, LocalDateTime.now()) == 0) {
+            PedidoStatus atual = buscarStatus(id);
+            if (atual == novoStatus) {
+                return buscarComItens(id);
+            }
+            throw new ConflitoException("Pedido " + id + " está " + atual + ", não " + esperado);
+        }
+        PedidoDTO resultado = buscarComItens(id);
         
-        emitter.onCompletion(() -> cozinhaEmitters.remove(emitter));
-        emitter.onTimeout(() -> cozinhaEmitters.remove(emitter));
-        emitter.onError((ex) -> cozinhaEmitters.remove(emitter));
+        // O garçom é notificado somente depois do commit (ver NotificadorPedidos)
+        eventPublisher.publishEvent(new StatusPedidoAlteradoEvento(resultado, esperado));
         
-        return emitter;
+        return resultado;
     }
     
-    public SseEmitter criarConexaoGarcom() {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-        garcomEmitters.add(emitter);
-        
-        emitter.onCompletion(() -> garcomEmitters.remove(emitter));
-        emitter.onTimeout(() -> garcomEmitters.remove(emitter));
-        emitter.onError((ex) -> garcomEmitters.remove(emitter));
+    /**
+     * Muda vários pedidos do mesmo status para o mesmo status em uma transação: uma consulta trava o lote,
+     * um único UPDATE altera os pedidos elegíveis e uma consulta devolve-os com os itens. Um único evento
+     * é publicado para o lote. O resultado traz cada pedido na ordem pedida, com sucesso ou o motivo da falha;
+     * pedidos que já estavam no novo status contam como sucesso, sem nova notificação.
+     */
+    public List<ResultadoStatusPedidoDTO> atualizarStatusEmLote(StatusLoteRequest request) {
+        PedidoStatus esperado = request.getStatusAtual();
+        PedidoStatus novoStatus = request.getStatus();
+        if (!esperado.podeMudarPara(novoStatus)) {
+            throw new ConflitoException("Transição de status inválida: " + esperado + " para " + novoStatus);
+        }
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        if (ids.size() > TAMANHO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("Lote deve ter no máximo " + TAMANHO_MAXIMO_LOTE + " pedidos");
+        }
         
-        return emitter;
-    }
-    
-    private void notificarCozinha(PedidoDTO pedido) {
-        List<SseEmitter> emittersParaRemover = new CopyOnWriteArrayList<>();
+        Map<Long, PedidoStatus> statusAtuais = new HashMap<>();
+        for (Pedido pedido : pedidoRepository.findParaAtualizarByIdIn(ids)) {
+            statusAtuais.put(pedido.getId(), pedido.getStatus());
+        }
+        List<Long> elegiveis = new ArrayList<>();
+        List<Long> concluidos = new ArrayList<>();
+        for (Long id : ids) {
+            PedidoStatus atual = statusAtuais.get(id);
+            if (atual == esperado) {
+                elegiveis.add(id);
+            }
+            if (atual == esperado || atual == novoStatus) {
+                concluidos.add(id);
+            }
+        }
+        if (!elegiveis.isEmpty()) {
+            pedidoRepository.atualizarStatusEmLote(elegiveis, esperado, novoStatus, LocalDateTime.now());
+        }
+        Map<Long, PedidoDTO> pedidos = concluidos.isEmpty() ? Map.of()
+                : pedidoRepository.findComItensByIdIn(concluidos).stream()
+                        .map(pedidoMapper::toDTO)
+                        .collect(Collectors.toMap(PedidoDTO::getId, Function.identity()));
         
-        for (SseEmitter emitter : cozinhaEmitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("novo-pedido")
-                        .data(pedido));
-            } catch (IOException e) {
-                emittersParaRemover.add(emitter);
+        List<ResultadoStatusPedidoDTO> resultados = new ArrayList<>(ids.size());
+        List<PedidoDTO> alterados = new ArrayList<>(elegiveis.size());
+        for (Long id : ids) {
+            PedidoStatus atual = statusAtuais.get(id);
+            if (atual == null) {
+                resultados.add(ResultadoStatusPedidoDTO.falha(id, "Pedido não encontrado com ID: " + id));
+            } else if (atual == esperado || atual == novoStatus) {
+                resultados.add(ResultadoStatusPedidoDTO.sucesso(pedidos.get(id)));
+                if (atual == esperado) {
+                    alterados.add(pedidos.get(id));
+                }
+            } else {
+                resultados.add(ResultadoStatusPedidoDTO.falha(id,
+                        "Pedido " + id + " está " + atual + ", não " + esperado));
             }
         }
         
-        cozinhaEmitters.removeAll(emittersParaRemover);
+        if (!alterados.isEmpty()) {
+            eventPublisher.publishEvent(new StatusPedidosAlteradosEvento(alterados, esperado, novoStatus));
+        }
+        return resultados;
     }
     
-    private void notificarGarcom(PedidoDTO pedido) {
-        List<SseEmitter> emittersParaRemover = new CopyOnWriteArrayList<>();
-        
-        for (SseEmitter emitter : garcomEmitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("pedido-pronto")
-                        .data(pedido));
-            } catch (IOException e) {
-                emittersParaRemover.add(emitter);
-            }
+    private PedidoStatus buscarStatus(Long id) {
+        return pedidoRepository.findStatusById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Pedido não encontrado com ID: " + id));
+    }
+    
+    // Pedido, linhas e itens do cardápio em uma única consulta
+    private PedidoDTO buscarComItens(Long id) {
+        List<Pedido> pedidos = pedidoRepository.findComItensByIdIn(List.of(id));
+        if (pedidos.isEmpty()) {
+            throw new RecursoNaoEncontradoException("Pedido não encontrado com ID: " + id);
         }
-        
-        garcomEmitters.removeAll(emittersParaRemover);
+        return pedidoMapper.toDTO(pedidos.get(0));
     }
     
-    // Métodos para estatísticas
+    // Métodos para SSE (Server-Sent Events)
+    // Com Last-Event-ID a tela recebe só o que perdeu; se a lacuna for grande demais, recebe o quadro completo
     @Transactional(readOnly = true)
-    public Long contarPedidosHoje() {
-        LocalDateTime inicioHoje = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        return pedidoRepository.countPedidosHoje(inicioHoje);
+    public SseEmitter criarConexaoCozinha(String ultimoEventoId) {
+        return sseBroadcaster.conectar(CanalSse.COZINHA, ultimoEventoId,
+                () -> listarPedidosPorStatusIn(STATUS_QUADRO_COZINHA));
     }
     
     @Transactional(readOnly = true)
-    public Double calcularVendasHoje() {
-        LocalDateTime inicioHoje = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0);
-        Double vendas = pedidoRepository.somaVendasHoje(inicioHoje);
-        return vendas != null ? vendas : 0.0;
+    public SseEmitter criarConexaoGarcom(String ultimoEventoId) {
+        return sseBroadcaster.conectar(CanalSse.GARCOM, ultimoEventoId,
+                () -> listarPedidosPorStatus(PedidoStatus.PRONTO));
     }
+    
+    // Métodos para estatísticas
 
+    // Confere os totais gravados em cada pedido contra a soma das suas linhas
     @Transactional(readOnly = true)
+    public List<Long> auditarTotais() {
+        return pedidoRepository.findIdsComTotaisDivergentes();
+    }
+
+    // SUPPORTS: pedidos ativos vêm do quadro em memória, sem abrir transação (nem conexão)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<PedidoDTO> listarPedidosPorStatusIn(List<PedidoStatus> statuses) {
-        List<Pedido> pedidos = pedidoRepository.findByStatusInOrderByDataCriacaoAsc(statuses);
-        return pedidos.stream()
-                .map(pedidoMapper::toDTO)
+        if (quadroPedidosAtivos.atende(statuses)) {
+            return quadroPedidosAtivos.listarPorStatus(statuses);
+        }
+        return PedidoLinhaQuadro.agruparPorPedido(pedidoRepository.findLinhasQuadroByStatusIn(statuses));
+    }
+    
+    // Carrega os pedidos da página com suas linhas em uma única consulta, preservando a ordem dos IDs
+    private Page<PedidoDTO> carregarPagina(Page<Long> ids) {
+        if (!ids.hasContent()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        Map<Long, Pedido> pedidosPorId = pedidoRepository.findComItensByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Pedido::getId, Function.identity()));
+        return ids.map(id -> pedidoMapper.toDTO(pedidosPorId.get(id)));
+    }
+    
+    private List<PedidoDTO> carregarNaOrdem(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Pedido> pedidosPorId = pedidoRepository.findComItensByIdIn(ids).stream()
+                .collect(Collectors.toMap(Pedido::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> pedidoMapper.toDTO(pedidosPorId.get(id)))
                 .collect(Collectors.toList());
     }
     
+    private Map<Long, ItemCardapio> buscarItensDoPedido(List<PedidoItemDTO> itens) {
+        Set<Long> ids = itens.stream()
+                .map(PedidoItemDTO::getItemId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        
+        Map<Long, ItemCardapio> itensPorId = new HashMap<>();
+        for (ItemCardapio item : itemCardapioRepository.findAllById(ids)) {
+            itensPorId.put(item.getId(), item);
+        }
+        
+        // Reunir todos os problemas para reportá-los em um único erro
+        List<Long> naoEncontrados = new ArrayList<>();
+        List<String> indisponiveis = new ArrayList<>();
+        for (Long id : ids) {
+            ItemCardapio item = itensPorId.get(id);
+            if (item == null) {
+                naoEncontrados.add(id);
+            } else if (!item.getAtivo()) {
+                indisponiveis.add(item.getNome());
+            }
+        }
+        
+        if (!naoEncontrados.isEmpty()) {
+            String mensagem = "Itens não encontrados com IDs: " + naoEncontrados;
+            if (!indisponiveis.isEmpty()) {
+                mensagem += "; itens não disponíveis: " + String.join(", ", indisponiveis);
+            }
+            throw new RecursoNaoEncontradoException(mensagem);
+        }
+        
+        if (!indisponiveis.isEmpty()) {
+            throw new IllegalArgumentException("Itens não estão disponíveis: " + String.join(", ", indisponiveis));
+        }
+        
+        return itensPorId;
+    }
+    
     private void validarPedido(PedidoDTO pedidoDTO) {
         if (pedidoDTO.getItens() == null || pedidoDTO.getItens().isEmpty()) {
             throw new IllegalArgumentException("Pedido deve ter pelo menos um item");
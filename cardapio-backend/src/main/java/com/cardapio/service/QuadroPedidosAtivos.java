@@ -0,0 +1,340 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.cardapio.dto.ResumoPedidosAtivos;
+import com.cardapio.evento.PedidoCriadoEvento;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.evento.StatusPedidosAlteradosEvento;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.repository.PedidoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Índice em memória dos pedidos ainda não entregues, por status e por mesa.
+ * Carregado do banco na inicialização e atualizado após o commit de cada criação ou mudança de status,
+ * atende os quadros da cozinha e do garçom sem consultas SQL.
+ * <p>
+ * Leitores enxergam sempre um conjunto de índices imutável e consistente; escritas são serializadas
+ * e substituem o conjunto inteiro (a quantidade de pedidos ativos é pequena). As consultas ao banco
+ * acontecem fora da trava, para que os commits locais nunca esperem por elas.
+ * <p>
+ * Os eventos só chegam ao nó que fez a mudança. Com mais de uma instância, cada uma confere a cada
+ * {@code cardapio.quadro.intervalo-sincronizacao} ms um resumo dos pedidos ativos no banco contra o quadro
+ * e o recarrega quando divergem; mudanças de outra instância aparecem com esse atraso máximo.
+ */
+@Component
+public class QuadroPedidosAtivos {
+
+    public static final List<PedidoStatus> STATUS_ATIVOS =
+            List.of(PedidoStatus.RECEBIDO, PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO);
+
+    private static final Logger log = LoggerFactory.getLogger(QuadroPedidosAtivos.class);
+
+    private static final int PEDIDOS_REMOVIDOS_RETIDOS = 1000;
+
+    private static final Comparator<PedidoDTO> ORDEM_CHEGADA =
+            Comparator.comparing(PedidoDTO::getDataCriacao).thenComparing(PedidoDTO::getId);
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    // Zero desliga a conferência (uma única instância)
+    @Value("${cardapio.quadro.intervalo-sincronizacao:5000}")
+    private long intervaloSincronizacao;
+
+    // Nulo até o primeiro carregamento; enquanto isso as consultas vão ao banco
+    private volatile Indices indices;
+
+    private final Object trava = new Object();
+
+    // Última versão dos pedidos que saíram do quadro, para que um evento atrasado não os traga de volta.
+    // Sobrevive às recargas e guarda só os mais recentes (guardado por trava)
+    private final Map<Long, Long> removidos = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> maisAntigo) {
+            return size() > PEDIDOS_REMOVIDOS_RETIDOS;
+        }
+    };
+
+    // Pedidos aplicados enquanto cada recarga em andamento consulta o banco, reaplicados sobre o que ela
+    // leu antes da troca dos índices (guardado por trava)
+    private final Set<List<PedidoDTO>> aplicadosDuranteRecargas = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final LongAdder recargasPorDivergencia = new LongAdder();
+
+    private ScheduledExecutorService sincronizacao;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        reconstruir();
+        if (intervaloSincronizacao > 0) {
+            sincronizacao = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "quadro-sincronizacao");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sincronizacao.scheduleWithFixedDelay(this::sincronizarAgendado,
+                    intervaloSincronizacao, intervaloSincronizacao, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (sincronizacao != null) {
+            sincronizacao.shutdownNow();
+        }
+    }
+
+    /**
+     * Recarrega o índice a partir do banco. A consulta roda fora da trava; os commits locais aplicados
+     * enquanto ela roda são reaplicados sobre o resultado, e a trava só é tomada para a troca dos índices.
+     *
+     * @return quantidade de pedidos ativos carregados
+     */
+    public int reconstruir() {
+        List<PedidoDTO> aplicadosDurante = new ArrayList<>();
+        synchronized (trava) {
+            aplicadosDuranteRecargas.add(aplicadosDurante);
+        }
+        try {
+            List<PedidoDTO> pedidos = consultarBanco();
+            synchronized (trava) {
+                // Um pedido que já saiu do quadro por um commit local pode ter sido lido antes desse commit
+                Map<Long, PedidoDTO> porId = new HashMap<>();
+                aplicarSobre(porId, pedidos);
+                aplicarSobre(porId, aplicadosDurante);
+                indices = new Indices(porId.values());
+                return porId.size();
+            }
+        } finally {
+            synchronized (trava) {
+                aplicadosDuranteRecargas.remove(aplicadosDurante);
+            }
+        }
+    }
+
+    /**
+     * Recarrega o quadro se o resumo dos pedidos ativos no banco não bate com o da memória, o que acontece
+     * quando outra instância cria ou altera pedidos. Custa uma consulta agregada quando nada mudou.
+     * Nada é travado durante a consulta; um commit local ainda não aplicado pode causar uma recarga a mais,
+     * nunca uma a menos.
+     *
+     * @return verdadeiro se o quadro foi recarregado
+     */
+    public boolean sincronizar() {
+        if (indices == null) {
+            return false;
+        }
+        ResumoPedidosAtivos noBanco = pedidoRepository.resumirPorStatusIn(STATUS_ATIVOS);
+        // Lido depois da consulta, para já incluir os commits locais que ela enxergou
+        Indices atual = indices;
+        if (noBanco.equals(atual.resumo)) {
+            return false;
+        }
+        log.debug("Quadro de pedidos ativos divergente do banco ({} em memória, {} no banco); recarregando",
+                atual.resumo.getQuantidade(), noBanco.getQuantidade());
+        reconstruir();
+        recargasPorDivergencia.increment();
+        return true;
+    }
+
+    public long getRecargasPorDivergencia() {
+        return recargasPorDivergencia.sum();
+    }
+
+    /**
+     * Compara o índice com o banco sem alterá-lo.
+     *
+     * @return IDs dos pedidos ausentes, sobrando ou com status/itens divergentes
+     */
+    public List<Long> verificar() {
+        Map<Long, PedidoDTO> noBanco = consultarBanco().stream()
+                .collect(Collectors.toMap(PedidoDTO::getId, Function.identity()));
+        Map<Long, PedidoDTO> emMemoria = indices != null ? indices.porId : Map.of();
+
+        List<Long> divergentes = new ArrayList<>();
+        for (PedidoDTO pedido : noBanco.values()) {
+            if (!equivalentes(pedido, emMemoria.get(pedido.getId()))) {
+                divergentes.add(pedido.getId());
+            }
+        }
+        for (Long id : emMemoria.keySet()) {
+            if (!noBanco.containsKey(id)) {
+                divergentes.add(id);
+            }
+        }
+        Collections.sort(divergentes);
+        return divergentes;
+    }
+
+    // Antes das notificações SSE: quando o evento recebe um id, o quadro (fonte do snapshot) já tem o commit
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void aoCriarPedido(PedidoCriadoEvento evento) {
+        aplicar(evento.getPedido());
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void aoAlterarStatus(StatusPedidoAlteradoEvento evento) {
+        aplicar(evento.getPedido());
+    }
+
+    // O lote inteiro entra de uma vez, com uma única reconstrução dos índices
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void aoAlterarStatusEmLote(StatusPedidosAlteradosEvento evento) {
+        aplicar(evento.getPedidos());
+    }
+
+    public boolean estaCarregado() {
+        return indices != null;
+    }
+
+    // Verdadeiro quando todos os status pedidos estão no índice e ele já foi carregado
+    public boolean atende(Collection<PedidoStatus> statuses) {
+        return indices != null && STATUS_ATIVOS.containsAll(statuses);
+    }
+
+    public List<PedidoDTO> listarPorStatus(Collection<PedidoStatus> statuses) {
+        Indices atual = indices;
+        if (statuses.size() == 1) {
+            return atual.porStatus.getOrDefault(statuses.iterator().next(), List.of());
+        }
+        return statuses.stream()
+                .distinct()
+                .flatMap(status -> atual.porStatus.getOrDefault(status, List.of()).stream())
+                .sorted(ORDEM_CHEGADA)
+                .collect(Collectors.toList());
+    }
+
+    // Mais recentes primeiro, como na consulta por mesa
+    public List<PedidoDTO> listarPorMesa(String mesa) {
+        return indices.porMesa.getOrDefault(mesa, List.of());
+    }
+
+    public int contarPedidos() {
+        Indices atual = indices;
+        return atual != null ? atual.porId.size() : 0;
+    }
+
+    void aplicar(PedidoDTO pedido) {
+        aplicar(List.of(pedido));
+    }
+
+    void aplicar(Collection<PedidoDTO> pedidos) {
+        synchronized (trava) {
+            for (List<PedidoDTO> aplicadosDurante : aplicadosDuranteRecargas) {
+                aplicadosDurante.addAll(pedidos);
+            }
+            Indices atual = indices;
+            // Antes do carregamento não há o que atualizar: a recarga em andamento reaplica este commit
+            if (atual == null) {
+                return;
+            }
+            Map<Long, PedidoDTO> porId = new HashMap<>(atual.porId);
+            if (aplicarSobre(porId, pedidos)) {
+                indices = new Indices(porId.values());
+            }
+        }
+    }
+
+    // Chamado com a trava
+    private boolean aplicarSobre(Map<Long, PedidoDTO> porId, Collection<PedidoDTO> pedidos) {
+        boolean alterado = false;
+        for (PedidoDTO pedido : pedidos) {
+            if (obsoleto(pedido, porId)) {
+                continue;
+            }
+            if (STATUS_ATIVOS.contains(pedido.getStatus())) {
+                porId.put(pedido.getId(), pedido);
+            } else {
+                porId.remove(pedido.getId());
+                removidos.put(pedido.getId(), pedido.getVersao());
+            }
+            alterado = true;
+        }
+        return alterado;
+    }
+
+    // Commits concorrentes podem ter os eventos entregues fora de ordem; vale a maior versão do pedido
+    private boolean obsoleto(PedidoDTO pedido, Map<Long, PedidoDTO> porId) {
+        PedidoDTO anterior = porId.get(pedido.getId());
+        Long referencia = anterior != null ? anterior.getVersao() : removidos.get(pedido.getId());
+        return referencia != null && pedido.getVersao() != null && pedido.getVersao() < referencia;
+    }
+
+    private List<PedidoDTO> consultarBanco() {
+        return PedidoLinhaQuadro.agruparPorPedido(pedidoRepository.findLinhasQuadroByStatusIn(STATUS_ATIVOS));
+    }
+
+    // Uma falha (ex.: banco indisponível) não pode cancelar as próximas execuções
+    private void sincronizarAgendado() {
+        try {
+            sincronizar();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao conferir o quadro de pedidos ativos com o banco", e);
+        }
+    }
+
+    private static boolean equivalentes(PedidoDTO noBanco, PedidoDTO emMemoria) {
+        return emMemoria != null
+                && noBanco.getStatus() == emMemoria.getStatus()
+                && Objects.equals(noBanco.getMesa(), emMemoria.getMesa())
+                && noBanco.getItens().size() == emMemoria.getItens().size();
+    }
+
+    private static final class Indices {
+
+        private final Map<Long, PedidoDTO> porId;
+        private final Map<PedidoStatus, List<PedidoDTO>> porStatus;
+        private final Map<String, List<PedidoDTO>> porMesa;
+        private final ResumoPedidosAtivos resumo;
+
+        private Indices(Collection<PedidoDTO> pedidos) {
+            List<PedidoDTO> ordenados = pedidos.stream().sorted(ORDEM_CHEGADA).collect(Collectors.toList());
+
+            this.porId = ordenados.stream()
+                    .collect(Collectors.toUnmodifiableMap(PedidoDTO::getId, Function.identity()));
+            this.porStatus = ordenados.stream()
+                    .collect(Collectors.groupingBy(PedidoDTO::getStatus, () -> new EnumMap<>(PedidoStatus.class),
+                            Collectors.toUnmodifiableList()));
+
+            Collections.reverse(ordenados);
+            this.porMesa = ordenados.stream()
+                    .filter(pedido -> pedido.getMesa() != null)
+                    .collect(Collectors.groupingBy(PedidoDTO::getMesa, Collectors.toUnmodifiableList()));
+            this.resumo = ResumoPedidosAtivos.de(ordenados);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.cardapio.model.Usuario;
 import com.cardapio.repository.UsuarioRepository;
 import com.cardapio.security.CustomUserDetails;
 import com.cardapio.security.JwtUtil;
+import com.cardapio.security.UsuarioCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -36,6 +37,9 @@ public class UsuarioService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private UsuarioCache usuarioCache;
+    
     public UsuarioDTO criarUsuario(UsuarioDTO usuarioDTO) {
         if (usuarioRepository.existsByEmail(usuarioDTO.getEmail())) {
             throw new IllegalArgumentException("Email já está em uso");
@@ -108,6 +112,7 @@ public class UsuarioService {
         }
         
         Usuario usuarioAtualizado = usuarioRepository.save(usuario);
+        usuarioCache.invalidarAposCommit(id);
         return usuarioMapper.toDTO(usuarioAtualizado);
     }
     
@@ -116,6 +121,7 @@ public class UsuarioService {
             throw new RecursoNaoEncontradoException("Usuário não encontrado com ID: " + id);
         }
         usuarioRepository.deleteById(id);
+        usuarioCache.invalidarAposCommit(id);
     }
 }
 
@@ -0,0 +1,144 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.RelatorioVendasDTO;
+import com.cardapio.evento.PedidoCriadoEvento;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.evento.StatusPedidosAlteradosEvento;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.model.VendaHora;
+import com.cardapio.model.VendaItemDia;
+import com.cardapio.repository.VendaHoraRepository;
+import com.cardapio.repository.VendaItemDiaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém os contadores de vendas por hora e por item do cardápio. São atualizados antes do commit,
+ * na mesma transação que cria ou entrega o pedido, de modo que o relatório do dia lê no máximo
+ * 24 linhas de horas mais as linhas de itens, sem varrer pedidos.
+ * <p>
+ * Pedidos contam no dia e na hora em que foram criados; o faturamento e os itens, quando entregues.
+ */
+@Service
+@Transactional
+public class VendasConsolidadasService {
+    
+    @Autowired
+    private VendaHoraRepository vendaHoraRepository;
+    
+    @Autowired
+    private VendaItemDiaRepository vendaItemDiaRepository;
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void aoCriarPedido(PedidoCriadoEvento evento) {
+        somarHora(evento.getPedido().getDataCriacao(), 1, 0, BigDecimal.ZERO);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void aoAlterarStatus(StatusPedidoAlteradoEvento evento) {
+        registrarEntregas(List.of(evento.getPedido()), evento.getStatusAnterior(), evento.getStatusNovo());
+    }
+    
+    // O lote entra somado: o custo depende das horas e dos itens envolvidos, não da quantidade de pedidos
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void aoAlterarStatusEmLote(StatusPedidosAlteradosEvento evento) {
+        registrarEntregas(evento.getPedidos(), evento.getStatusAnterior(), evento.getStatusNovo());
+    }
+    
+    @Transactional(readOnly = true)
+    public RelatorioVendasDTO relatorioDoDia(LocalDate dia) {
+        RelatorioVendasDTO relatorio = new RelatorioVendasDTO(dia);
+        
+        long totalPedidos = 0;
+        long pedidosEntregues = 0;
+        BigDecimal totalVendas = BigDecimal.ZERO;
+        for (VendaHora hora : vendaHoraRepository.findByDiaOrderByHora(dia)) {
+            totalPedidos += hora.getPedidos();
+            pedidosEntregues += hora.getPedidosEntregues();
+            totalVendas = totalVendas.add(hora.getValorVendas());
+            relatorio.getPedidosPorHora().put(hora.getHora(), hora.getPedidos());
+            relatorio.getVendasPorHora().put(hora.getHora(), hora.getValorVendas());
+        }
+        relatorio.setTotalPedidos(totalPedidos);
+        relatorio.setPedidosEntregues(pedidosEntregues);
+        relatorio.setTotalVendas(totalVendas);
+        
+        for (VendaItemDia item : vendaItemDiaRepository.findByDiaOrderByItemCardapioId(dia)) {
+            if (item.getQuantidade() != 0) {
+                relatorio.getQuantidadesPorItem().put(item.getItemCardapioId(), item.getQuantidade());
+            }
+        }
+        
+        return relatorio;
+    }
+    
+    /**
+     * Descarta os contadores dos dias em [inicio, fim) e os recalcula a partir dos pedidos gravados.
+     * Usado para carga retroativa e para corrigir divergências.
+     *
+     * @return quantidade de horas com movimento no período
+     */
+    public int reconstruir(LocalDate inicio, LocalDate fim) {
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("Data inicial deve ser anterior à data final");
+        }
+        
+        vendaHoraRepository.removerPeriodo(inicio, fim);
+        vendaItemDiaRepository.removerPeriodo(inicio, fim);
+        vendaItemDiaRepository.recalcularPeriodo(inicio.atStartOfDay(), fim.atStartOfDay());
+        return vendaHoraRepository.recalcularPeriodo(inicio.atStartOfDay(), fim.atStartOfDay());
+    }
+    
+    /**
+     * Soma (ou estorna, para pedidos que deixam de estar entregues) a venda dos pedidos, agregando antes as
+     * diferenças por hora e por item do dia: cada linha de contador recebe uma única atualização.
+     */
+    private void registrarEntregas(List<PedidoDTO> pedidos, PedidoStatus anterior, PedidoStatus novo) {
+        boolean entregueAntes = anterior == PedidoStatus.ENTREGUE;
+        boolean entregueAgora = novo == PedidoStatus.ENTREGUE;
+        if (entregueAntes == entregueAgora || pedidos.isEmpty()) {
+            return;
+        }
+        
+        long sinal = entregueAgora ? 1 : -1;
+        // Em ordem de hora e de ID, para que entregas concorrentes travem as linhas sempre na mesma ordem
+        Map<LocalDateTime, Long> entreguesPorHora = new TreeMap<>();
+        Map<LocalDateTime, BigDecimal> valorPorHora = new TreeMap<>();
+        Map<LocalDate, Map<Long, Long>> quantidadesPorDia = new TreeMap<>();
+        for (PedidoDTO pedido : pedidos) {
+            LocalDateTime hora = pedido.getDataCriacao().truncatedTo(ChronoUnit.HOURS);
+            entreguesPorHora.merge(hora, sinal, Long::sum);
+            valorPorHora.merge(hora, pedido.getValorTotal().multiply(BigDecimal.valueOf(sinal)), BigDecimal::add);
+            Map<Long, Long> quantidades = quantidadesPorDia.computeIfAbsent(hora.toLocalDate(), dia -> new TreeMap<>());
+            for (PedidoItemDTO item : pedido.getItens()) {
+                quantidades.merge(item.getItemId(), sinal * item.getQuantidade(), Long::sum);
+            }
+        }
+        
+        entreguesPorHora.forEach((hora, entregues) -> somarHora(hora, 0, entregues, valorPorHora.get(hora)));
+        quantidadesPorDia.forEach((dia, quantidades) -> quantidades.forEach((itemId, quantidade) -> {
+            vendaItemDiaRepository.garantirLinha(dia, itemId);
+            vendaItemDiaRepository.somar(dia, itemId, quantidade);
+        }));
+    }
+    
+    private void somarHora(LocalDateTime momento, long pedidos, long entregues, BigDecimal valor) {
+        LocalDate dia = momento.toLocalDate();
+        int hora = momento.getHour();
+        vendaHoraRepository.garantirLinha(dia, hora);
+        vendaHoraRepository.somar(dia, hora, pedidos, entregues, valor);
+    }
+}
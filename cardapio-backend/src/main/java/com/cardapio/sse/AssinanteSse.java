@@ -0,0 +1,151 @@
+package com.cardapio.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uma conexão SSE com sua fila de saída limitada. Cada assinante é atendido
+ * por no máximo uma thread de envio por vez, preservando a ordem dos eventos.
+ */
+class AssinanteSse {
+
+    private final CanalSse canal;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> fila;
+
+    private final AtomicBoolean envioAgendado = new AtomicBoolean();
+    private final AtomicBoolean encerrado = new AtomicBoolean();
+    private final AtomicBoolean finalizado = new AtomicBoolean();
+
+    // Momento em que o envio atual começou (0 quando não há envio em andamento)
+    private volatile long envioIniciadoEm;
+
+    // Verdadeiro enquanto a thread do envio travado está descontada do limite do pool (guardado por this)
+    private boolean envioDescontado;
+
+    // Expulso por não acompanhar os eventos: a conexão é encerrada com erro, não normalmente
+    private volatile boolean expulso;
+
+    private final long conectadoEm = System.currentTimeMillis();
+
+    // Quando verdadeiro, a conexão é fechada assim que a fila esvaziar (ex.: idade máxima atingida)
+    private volatile boolean fecharAoEsvaziar;
+
+    AssinanteSse(CanalSse canal, SseEmitter emitter, int capacidadeFila) {
+        this.canal = canal;
+        this.emitter = emitter;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    // Retorna false quando a fila está cheia, ou seja, o assinante não está acompanhando os eventos
+    boolean enfileirar(Set<DataWithMediaType> evento) {
+        return !encerrado.get() && fila.offer(evento);
+    }
+
+    Set<DataWithMediaType> proximo() {
+        return fila.poll();
+    }
+
+    void marcarInicioEnvio() {
+        envioIniciadoEm = System.currentTimeMillis();
+    }
+
+    // Retorna true se a thread deste envio estava descontada do limite do pool e deve voltar a contar
+    synchronized boolean marcarFimEnvio() {
+        envioIniciadoEm = 0;
+        boolean descontado = envioDescontado;
+        envioDescontado = false;
+        return descontado;
+    }
+
+    // Verdadeiro quando um único envio está bloqueado há mais tempo que o limite (cliente travado)
+    boolean envioTravado(long agora, long limite) {
+        long inicio = envioIniciadoEm;
+        return inicio != 0 && agora - inicio > limite;
+    }
+
+    // Marca o envio travado como descontado do limite do pool; false se ele terminou nesse meio tempo
+    synchronized boolean descontarEnvioTravado(long agora, long limite) {
+        if (envioDescontado || !envioTravado(agora, limite)) {
+            return false;
+        }
+        envioDescontado = true;
+        return true;
+    }
+
+    void descartarPendentes() {
+        fila.clear();
+    }
+
+    boolean conectadoHaMaisDe(long agora, long idadeMaxima) {
+        return agora - conectadoEm > idadeMaxima;
+    }
+
+    void fecharAoEsvaziar() {
+        fecharAoEsvaziar = true;
+    }
+
+    boolean deveFecharAoEsvaziar() {
+        return fecharAoEsvaziar;
+    }
+
+    boolean temPendentes() {
+        return !fila.isEmpty();
+    }
+
+    boolean agendarEnvio() {
+        return envioAgendado.compareAndSet(false, true);
+    }
+
+    void liberarEnvio() {
+        envioAgendado.set(false);
+    }
+
+    // Retorna true apenas na primeira chamada
+    boolean encerrar() {
+        if (encerrado.compareAndSet(false, true)) {
+            fila.clear();
+            return true;
+        }
+        return false;
+    }
+
+    boolean isEncerrado() {
+        return encerrado.get();
+    }
+
+    void marcarExpulso() {
+        expulso = true;
+    }
+
+    // Fecha a conexão uma única vez; nunca é chamado enquanto um envio está em andamento, porque
+    // complete/completeWithError esperam o mesmo monitor do emitter que um send bloqueado segura
+    void finalizar() {
+        if (finalizado.compareAndSet(false, true)) {
+            try {
+                if (expulso) {
+                    // Com erro, o container descarta o socket em vez de tentar terminar a resposta
+                    emitter.completeWithError(new IOException("Assinante SSE desconectado por não acompanhar os eventos"));
+                } else {
+                    emitter.complete();
+                }
+            } catch (Exception ignored) {
+                // A conexão já foi encerrada pelo cliente ou pelo container
+            }
+        }
+    }
+
+    CanalSse getCanal() {
+        return canal;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+}
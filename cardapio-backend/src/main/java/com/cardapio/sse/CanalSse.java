@@ -0,0 +1,6 @@
+package com.cardapio.sse;
+
+public enum CanalSse {
+    COZINHA,
+    GARCOM
+}
@@ -0,0 +1,63 @@
+package com.cardapio.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Buffer circular com os eventos mais recentes de um canal, usado para reenviar
+ * o que uma tela perdeu enquanto estava desconectada. Não é thread-safe:
+ * o acesso é sincronizado pelo broadcaster.
+ */
+class HistoricoEventos {
+
+    private final long[] ids;
+    private final List<Set<DataWithMediaType>> eventos;
+    private int inicio;
+    private int tamanho;
+
+    HistoricoEventos(int capacidade) {
+        this.ids = new long[capacidade];
+        this.eventos = new ArrayList<>(capacidade);
+        for (int i = 0; i < capacidade; i++) {
+            eventos.add(null);
+        }
+    }
+
+    void adicionar(long id, Set<DataWithMediaType> evento) {
+        if (ids.length == 0) {
+            return;
+        }
+        int posicao = (inicio + tamanho) % ids.length;
+        ids[posicao] = id;
+        eventos.set(posicao, evento);
+        if (tamanho < ids.length) {
+            tamanho++;
+        } else {
+            inicio = (inicio + 1) % ids.length;
+        }
+    }
+
+    /**
+     * Eventos com id maior que {@code ultimoId}, ou null quando algum deles já saiu do buffer.
+     * Os ids de um canal são consecutivos, então basta comparar com o mais antigo retido.
+     */
+    List<Set<DataWithMediaType>> desde(long ultimoId, long idAtual) {
+        if (ultimoId == idAtual) {
+            return List.of();
+        }
+        if (ultimoId > idAtual || tamanho == 0 || ultimoId < ids[inicio] - 1) {
+            return null;
+        }
+        List<Set<DataWithMediaType>> perdidos = new ArrayList<>();
+        for (int i = 0; i < tamanho; i++) {
+            int posicao = (inicio + i) % ids.length;
+            if (ids[posicao] > ultimoId) {
+                perdidos.add(eventos.get(posicao));
+            }
+        }
+        return perdidos;
+    }
+}
@@ -0,0 +1,474 @@
+package com.cardapio.sse;
+
+import com.cardapio.config.AsyncConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Distribui eventos SSE para as telas da cozinha e do garçom.
+ *
+ * <p>Cada evento é serializado uma única vez e colocado na fila limitada de cada assinante;
+ * o envio acontece em um pool dedicado, fora da thread que publicou o evento. Assinantes
+ * cuja fila enche ou cujo envio fica bloqueado além do limite (telas lentas ou travadas)
+ * são desconectados e devem reconectar.</p>
+ *
+ * <p>Nem interromper a thread nem fechar a conexão libera uma escrita já bloqueada no socket; quem a
+ * libera é o tempo limite de escrita do Tomcat (server.tomcat.connection-timeout). Até lá, a thread de
+ * um assinante expulso por envio travado deixa de contar no limite do pool, e assinantes que
+ * encontram o pool cheio esperam a próxima thread livre em vez de ficarem sem envio.</p>
+ *
+ * <p>Todo evento recebe um id crescente e os mais recentes ficam retidos por canal. Uma tela
+ * que reconecta informando o Last-Event-ID recebe apenas o que perdeu; se a lacuna for maior
+ * que o histórico retido, recebe um evento "snapshot" com o estado completo. Depois do snapshot podem
+ * vir eventos de mudanças que ele já contém: as telas aplicam cada pedido pela versão, ignorando as que
+ * não forem maiores que a já exibida.</p>
+ *
+ * <p>Um heartbeat periódico (linha de comentário) detecta conexões mortas, que falham no envio
+ * e são removidas. Conexões com mais que a idade máxima recebem uma dica de reconexão (retry)
+ * e são encerradas; a tela reconecta e recupera o que perdeu via Last-Event-ID.</p>
+ *
+ * <p>Com threads virtuais ativas (Java 21+), cada envio roda em uma thread virtual própria em vez do pool
+ * limitado, e o monitor também passa a usar uma thread virtual.</p>
+ */
+@Component
+public class SseBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SseBroadcaster.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cardapio.sse.capacidade-fila:64}")
+    private int capacidadeFila;
+
+    @Value("${cardapio.sse.threads-envio:4}")
+    private int threadsEnvio;
+
+    // O pool cresce até este limite para que envios travados não atrasem os demais assinantes
+    @Value("${cardapio.sse.threads-envio-max:64}")
+    private int threadsEnvioMax;
+
+    @Value("${cardapio.sse.tempo-maximo-envio:5000}")
+    private long tempoMaximoEnvio;
+
+    @Value("${cardapio.sse.eventos-retidos:256}")
+    private int eventosRetidos;
+
+    @Value("${cardapio.sse.intervalo-heartbeat:15000}")
+    private long intervaloHeartbeat;
+
+    @Value("${cardapio.sse.idade-maxima-conexao:1800000}")
+    private long idadeMaximaConexao;
+
+    // Tempo sugerido ao cliente para reconectar quando a conexão é encerrada por idade
+    @Value("${cardapio.sse.tempo-reconexao:1000}")
+    private long tempoReconexao;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    private final Map<CanalSse, Set<AssinanteSse>> assinantes = new EnumMap<>(CanalSse.class);
+
+    private final Map<CanalSse, EstadoCanal> estados = new EnumMap<>(CanalSse.class);
+
+    private final LongAdder expulsoes = new LongAdder();
+    private final LongAdder conexoesMortas = new LongAdder();
+    private final LongAdder encerradasPorIdade = new LongAdder();
+
+    // Assinantes com envio reservado que encontraram o pool no limite, na ordem em que chegaram
+    private final ConcurrentLinkedDeque<AssinanteSse> aguardandoThread = new ConcurrentLinkedDeque<>();
+
+    private Executor executor;
+
+    // Nulo com threads virtuais, que não têm limite a compensar
+    private ThreadPoolExecutor pool;
+
+    // Threads presas em envios de assinantes já expulsos, somadas ao limite do pool até a escrita desistir
+    private int enviosDescontados;
+
+    private ScheduledExecutorService monitor;
+
+    public SseBroadcaster() {
+        for (CanalSse canal : CanalSse.values()) {
+            assinantes.put(canal, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Ids partem do relógio para que um id anterior a um reinício nunca coincida com um evento novo
+        long idInicial = System.currentTimeMillis() * 1000;
+        for (CanalSse canal : CanalSse.values()) {
+            estados.put(canal, new EstadoCanal(idInicial, eventosRetidos));
+        }
+
+        if (AsyncConfig.threadsVirtuaisAtivas(threadsVirtuais)) {
+            // Envio bloqueado em uma tela lenta não ocupa thread de plataforma nem esbarra no limite do pool
+            this.executor = new VirtualThreadTaskExecutor("sse-envio-");
+            this.monitor = Executors.newSingleThreadScheduledExecutor(
+                    new VirtualThreadTaskExecutor("sse-monitor-").getVirtualThreadFactory());
+        } else {
+            AtomicInteger contador = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(threadsEnvio, threadsEnvioMax, 60L, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), tarefa -> {
+                        Thread thread = new Thread(tarefa, "sse-envio-" + contador.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.executor = pool;
+            this.monitor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "sse-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long intervalo = Math.max(tempoMaximoEnvio / 2, 100);
+        monitor.scheduleWithFixedDelay(this::expulsarEnviosTravados, intervalo, intervalo, TimeUnit.MILLISECONDS);
+        monitor.scheduleWithFixedDelay(this::enviarHeartbeat, intervaloHeartbeat, intervaloHeartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        monitor.shutdownNow();
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        assinantes.values().forEach(canal -> canal.forEach(this::expulsar));
+        AssinanteSse aguardando;
+        while ((aguardando = aguardandoThread.poll()) != null) {
+            aguardando.finalizar(); // O envio reservado nunca começou
+        }
+    }
+
+    public SseEmitter conectar(CanalSse canal) {
+        return conectar(canal, null, null);
+    }
+
+    /**
+     * Conecta uma tela ao canal. Quando {@code ultimoEventoId} é informado, reenvia os eventos
+     * perdidos desde então ou, se eles já saíram do histórico, o resultado de {@code snapshot}.
+     * <p>
+     * Nenhum evento se perde, mas os publicados enquanto o snapshot é consultado são reenviados depois dele
+     * mesmo que a consulta já tenha visto a mudança: a publicação acontece após o commit, em outra thread,
+     * e não há como saber qual commit a consulta enxergou. Por isso o cliente aplica os pedidos de forma
+     * idempotente pela {@code versao}.
+     */
+    public SseEmitter conectar(CanalSse canal, String ultimoEventoId, Supplier<?> snapshot) {
+        return conectar(canal, ultimoEventoId, snapshot, new SseEmitter(Long.MAX_VALUE));
+    }
+
+    SseEmitter conectar(CanalSse canal, String ultimoEventoId, Supplier<?> snapshot, SseEmitter emitter) {
+        AssinanteSse assinante = criarAssinante(canal, emitter);
+        EstadoCanal estado = estados.get(canal);
+
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            synchronized (estado) {
+                assinantes.get(canal).add(assinante);
+            }
+            return emitter;
+        }
+
+        Long ultimoId = converterId(ultimoEventoId);
+        if (ultimoId != null) {
+            synchronized (estado) {
+                List<Set<DataWithMediaType>> perdidos = estado.historico.desde(ultimoId, estado.ultimoId);
+                if (perdidos != null && entregar(assinante, perdidos)) {
+                    assinantes.get(canal).add(assinante);
+                    agendarEnvio(assinante);
+                    return emitter;
+                }
+                assinante.descartarPendentes(); // Não coube na fila: melhor enviar o estado completo
+            }
+        }
+
+        // Lacuna maior que o histórico: envia o estado completo, consultado fora do bloqueio do canal.
+        // O id é lido antes da consulta: um evento com id até ele é de um commit que a consulta enxerga;
+        // os posteriores são reenviados, inclusive os que a consulta também já viu (repetidos, não perdidos)
+        long idSnapshot;
+        synchronized (estado) {
+            idSnapshot = estado.ultimoId;
+        }
+        Object dados = snapshot != null ? snapshot.get() : List.of();
+        synchronized (estado) {
+            Set<DataWithMediaType> eventoSnapshot = criarEvento(idSnapshot, "snapshot", dados);
+            List<Set<DataWithMediaType>> posteriores = estado.historico.desde(idSnapshot, estado.ultimoId);
+            assinante.enfileirar(eventoSnapshot);
+            if (posteriores != null) {
+                entregar(assinante, posteriores);
+            }
+            assinantes.get(canal).add(assinante);
+        }
+        agendarEnvio(assinante);
+        return emitter;
+    }
+
+    public void publicar(CanalSse canal, String nomeEvento, Object dados) {
+        // Serializado uma vez por publicação, não uma vez por conexão
+        String json = serializar(dados);
+        EstadoCanal estado = estados.get(canal);
+
+        // Id, histórico e filas atualizados juntos para que uma reconexão pelo histórico nunca perca nem duplique eventos
+        synchronized (estado) {
+            long id = ++estado.ultimoId;
+            Set<DataWithMediaType> evento = criarEvento(id, nomeEvento, json);
+            estado.historico.adicionar(id, evento);
+
+            for (AssinanteSse assinante : assinantes.get(canal)) {
+                if (assinante.enfileirar(evento)) {
+                    agendarEnvio(assinante);
+                } else if (!assinante.isEncerrado()) {
+                    log.warn("Assinante SSE do canal {} não acompanha os eventos e será desconectado", canal);
+                    expulsar(assinante);
+                }
+            }
+        }
+    }
+
+    public long getUltimoEventoId(CanalSse canal) {
+        EstadoCanal estado = estados.get(canal);
+        synchronized (estado) {
+            return estado.ultimoId;
+        }
+    }
+
+    public int contarAssinantes(CanalSse canal) {
+        return assinantes.get(canal).size();
+    }
+
+    public long getExpulsoes() {
+        return expulsoes.sum();
+    }
+
+    public long getConexoesMortas() {
+        return conexoesMortas.sum();
+    }
+
+    public long getEncerradasPorIdade() {
+        return encerradasPorIdade.sum();
+    }
+
+    /**
+     * Envia um comentário a todas as conexões. Conexões mortas falham no envio (ou travam e são
+     * expulsas pelo monitor) e são removidas; as antigas demais recebem a dica de reconexão.
+     */
+    void enviarHeartbeat() {
+        long agora = System.currentTimeMillis();
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        Set<DataWithMediaType> reconectar = SseEmitter.event().reconnectTime(tempoReconexao).comment("reconectar").build();
+
+        for (Set<AssinanteSse> canal : assinantes.values()) {
+            for (AssinanteSse assinante : canal) {
+                if (assinante.conectadoHaMaisDe(agora, idadeMaximaConexao)) {
+                    encerrarPorIdade(assinante, reconectar);
+                } else if (assinante.enfileirar(heartbeat)) {
+                    agendarEnvio(assinante);
+                } else {
+                    expulsar(assinante);
+                }
+            }
+        }
+    }
+
+    private AssinanteSse criarAssinante(CanalSse canal, SseEmitter emitter) {
+        AssinanteSse assinante = new AssinanteSse(canal, emitter, capacidadeFila);
+
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError((ex) -> remover(assinante));
+
+        return assinante;
+    }
+
+    private boolean entregar(AssinanteSse assinante, List<Set<DataWithMediaType>> eventos) {
+        for (Set<DataWithMediaType> evento : eventos) {
+            if (!assinante.enfileirar(evento)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<DataWithMediaType> criarEvento(long id, String nomeEvento, Object dados) {
+        String json = dados instanceof String texto ? texto : serializar(dados);
+        return SseEmitter.event()
+                .id(Long.toString(id))
+                .name(nomeEvento)
+                .data(json)
+                .build();
+    }
+
+    private Long converterId(String id) {
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private String serializar(Object dados) {
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar evento SSE", e);
+        }
+    }
+
+    private void agendarEnvio(AssinanteSse assinante) {
+        if (!assinante.agendarEnvio()) {
+            return; // Já existe uma thread enviando para este assinante
+        }
+        try {
+            executor.execute(() -> atender(assinante));
+        } catch (RejectedExecutionException e) {
+            // Pool no limite: mantém a reserva do envio e espera a próxima thread livre ou o monitor
+            aguardandoThread.offer(assinante);
+        }
+    }
+
+    // Ao terminar um assinante, a mesma thread segue para os que encontraram o pool cheio
+    private void atender(AssinanteSse assinante) {
+        for (AssinanteSse proximo = assinante; proximo != null; proximo = aguardandoThread.poll()) {
+            enviarPendentes(proximo);
+        }
+    }
+
+    private void despacharAguardando() {
+        AssinanteSse assinante;
+        while ((assinante = aguardandoThread.poll()) != null) {
+            AssinanteSse aguardando = assinante;
+            try {
+                executor.execute(() -> atender(aguardando));
+            } catch (RejectedExecutionException e) {
+                aguardandoThread.offerFirst(aguardando);
+                return;
+            }
+        }
+    }
+
+    private void enviarPendentes(AssinanteSse assinante) {
+        try {
+            Set<DataWithMediaType> evento;
+            while (!assinante.isEncerrado() && (evento = assinante.proximo()) != null) {
+                assinante.marcarInicioEnvio();
+                assinante.getEmitter().send(evento);
+                terminarEnvio(assinante);
+            }
+        } catch (Exception e) {
+            // Cliente desconectado: o envio falhou e a conexão é descartada
+            if (remover(assinante)) {
+                conexoesMortas.increment();
+            }
+        } finally {
+            terminarEnvio(assinante);
+            assinante.liberarEnvio();
+            if (!assinante.temPendentes() && assinante.deveFecharAoEsvaziar()) {
+                assinante.encerrar();
+            }
+            if (assinante.isEncerrado()) {
+                assinante.finalizar();
+            } else if (assinante.temPendentes()) {
+                agendarEnvio(assinante);
+            }
+        }
+    }
+
+    private void expulsarEnviosTravados() {
+        long agora = System.currentTimeMillis();
+        for (Set<AssinanteSse> canal : assinantes.values()) {
+            for (AssinanteSse assinante : canal) {
+                if (assinante.envioTravado(agora, tempoMaximoEnvio)) {
+                    log.warn("Envio SSE bloqueado há mais de {} ms no canal {}; desconectando assinante",
+                            tempoMaximoEnvio, assinante.getCanal());
+                    expulsar(assinante);
+                    if (pool != null && assinante.descontarEnvioTravado(agora, tempoMaximoEnvio)) {
+                        ajustarLimitePool(1);
+                    }
+                }
+            }
+        }
+        despacharAguardando();
+    }
+
+    private void terminarEnvio(AssinanteSse assinante) {
+        if (assinante.marcarFimEnvio()) {
+            ajustarLimitePool(-1);
+        }
+    }
+
+    // A thread presa no envio de um expulso continua viva até a escrita desistir; sem o desconto,
+    // algumas dezenas de telas sem rede esgotariam o pool e deixariam as saudáveis sem envio
+    private synchronized void ajustarLimitePool(int delta) {
+        enviosDescontados += delta;
+        pool.setMaximumPoolSize(Math.max(threadsEnvioMax + enviosDescontados, threadsEnvio));
+    }
+
+    synchronized int getEnviosDescontados() {
+        return enviosDescontados;
+    }
+
+    private void encerrarPorIdade(AssinanteSse assinante, Set<DataWithMediaType> reconectar) {
+        // Sai do canal antes da dica para não receber novos eventos; eles serão recuperados via Last-Event-ID
+        assinantes.get(assinante.getCanal()).remove(assinante);
+        encerradasPorIdade.increment();
+        assinante.fecharAoEsvaziar();
+        if (assinante.enfileirar(reconectar)) {
+            agendarEnvio(assinante);
+        } else {
+            expulsar(assinante);
+        }
+    }
+
+    private boolean remover(AssinanteSse assinante) {
+        assinantes.get(assinante.getCanal()).remove(assinante);
+        return assinante.encerrar();
+    }
+
+    private void expulsar(AssinanteSse assinante) {
+        assinante.marcarExpulso();
+        if (remover(assinante)) {
+            expulsoes.increment();
+        }
+        // Se houver um envio em andamento, a própria thread de envio fecha a conexão ao terminar
+        if (assinante.agendarEnvio()) {
+            assinante.finalizar();
+        }
+    }
+
+    private static final class EstadoCanal {
+        private long ultimoId;
+        private final HistoricoEventos historico;
+
+        private EstadoCanal(long idInicial, int eventosRetidos) {
+            this.ultimoId = idInicial;
+            this.historico = new HistoricoEventos(eventosRetidos);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.cardapio.sse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Publica no Micrometer o número de telas conectadas por canal e os contadores de desconexões do broadcaster.
+ */
+@Component
+public class SseMetricas implements MeterBinder {
+
+    @Autowired
+    private SseBroadcaster sseBroadcaster;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (CanalSse canal : CanalSse.values()) {
+            Gauge.builder("cardapio.sse.assinantes", sseBroadcaster, broadcaster -> broadcaster.contarAssinantes(canal))
+                    .description("Conexões SSE ativas")
+                    .tag("canal", canal.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        FunctionCounter.builder("cardapio.sse.desconexoes", sseBroadcaster, SseBroadcaster::getExpulsoes)
+                .description("Conexões SSE desconectadas por lentidão")
+                .tag("motivo", "lenta")
+                .register(registry);
+        FunctionCounter.builder("cardapio.sse.desconexoes", sseBroadcaster, SseBroadcaster::getConexoesMortas)
+                .description("Conexões SSE removidas por falha no envio")
+                .tag("motivo", "morta")
+                .register(registry);
+        FunctionCounter.builder("cardapio.sse.desconexoes", sseBroadcaster, SseBroadcaster::getEncerradasPorIdade)
+                .description("Conexões SSE encerradas por idade máxima")
+                .tag("motivo", "idade")
+                .register(registry);
+    }
+}
@@ -0,0 +1,36 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava com ddl-auto
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    email VARCHAR(150) NOT NULL UNIQUE,
+    senha VARCHAR(255) NOT NULL,
+    role VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS itens_cardapio (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome VARCHAR(100) NOT NULL,
+    descricao VARCHAR(500),
+    preco NUMERIC(10, 2) NOT NULL,
+    imagem_url VARCHAR(500),
+    ativo BOOLEAN NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS pedidos (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    mesa VARCHAR(20),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RECEBIDO', 'EM_PREPARO', 'PRONTO', 'ENTREGUE')),
+    data_criacao TIMESTAMP(6) NOT NULL,
+    data_atualizacao TIMESTAMP(6),
+    observacoes VARCHAR(500)
+);
+
+CREATE TABLE IF NOT EXISTS pedido_itens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    pedido_id BIGINT NOT NULL REFERENCES pedidos (id),
+    item_cardapio_id BIGINT NOT NULL REFERENCES itens_cardapio (id),
+    quantidade INTEGER NOT NULL,
+    preco_unitario NUMERIC(10, 2) NOT NULL,
+    observacoes_item VARCHAR(200)
+);
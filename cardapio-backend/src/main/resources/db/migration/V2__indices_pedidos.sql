@@ -0,0 +1,11 @@
+-- Índices dos padrões de consulta do PedidoRepository (também declarados nas entidades)
+
+CREATE INDEX IF NOT EXISTS idx_pedidos_status_data_criacao ON pedidos (status, data_criacao);
+CREATE INDEX IF NOT EXISTS idx_pedidos_mesa_data_criacao ON pedidos (mesa, data_criacao DESC);
+CREATE INDEX IF NOT EXISTS idx_pedidos_data_criacao ON pedidos (data_criacao);
+CREATE INDEX IF NOT EXISTS idx_pedido_itens_pedido ON pedido_itens (pedido_id);
+CREATE INDEX IF NOT EXISTS idx_pedido_itens_item_cardapio ON pedido_itens (item_cardapio_id);
+
+-- Índice parcial dos pedidos ainda não entregues: quadros da cozinha e do garçom
+-- (a grande maioria das linhas de pedidos é ENTREGUE e fica fora do índice)
+CREATE INDEX IF NOT EXISTS idx_pedidos_ativos ON pedidos (data_criacao, id) WHERE status <> 'ENTREGUE';
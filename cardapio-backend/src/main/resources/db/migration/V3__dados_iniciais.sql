@@ -1,3 +1,5 @@
+-- Dados iniciais, aplicados uma única vez
+
 -- Inserir usuários padrão (senhas são 'password123' criptografadas com BCrypt)
 INSERT INTO usuarios (nome, email, senha, role) VALUES 
 ('Administrador', 'admin@cardapio.com', '$2a$10$0EYAUwWQQJtxNp1a/yAxvu9Jzl/jGMT.mz9qYXNqfU.exSA5Xsvu6', 'ADMIN'),
@@ -7,7 +9,8 @@ INSERT INTO usuarios (nome, email, senha, role) VALUES
 ON CONFLICT (email) DO NOTHING;
 
 -- Inserir itens do cardápio
-INSERT INTO itens_cardapio (nome, descricao, preco, imagem_url, ativo) VALUES 
+INSERT INTO itens_cardapio (nome, descricao, preco, imagem_url, ativo)
+SELECT * FROM (VALUES
 ('Hambúrguer Clássico', 'Hambúrguer artesanal com carne bovina, alface, tomate, cebola e molho especial', 25.90, 'https://example.com/hamburger.jpg', true),
 ('Batata Frita', 'Porção de batatas fritas crocantes temperadas com sal', 12.50, 'https://example.com/fries.jpg', true),
 ('Refrigerante Lata', 'Refrigerante gelado 350ml - Coca-Cola, Pepsi ou Guaraná', 5.00, 'https://example.com/soda.jpg', true),
@@ -18,5 +21,6 @@ INSERT INTO itens_cardapio (nome, descricao, preco, imagem_url, ativo) VALUES
 ('Água Mineral', 'Água mineral sem gás 500ml', 3.50, 'https://example.com/water.jpg', true),
 ('Cerveja Long Neck', 'Cerveja gelada long neck 355ml', 7.50, 'https://example.com/beer.jpg', true),
 ('Sobremesa do Dia', 'Sobremesa especial preparada pelo chef', 15.00, 'https://example.com/dessert.jpg', true)
-ON CONFLICT DO NOTHING;
-
+) AS itens (nome, descricao, preco, imagem_url, ativo)
+-- Bancos já existentes (baseline) podem ter o cardápio cadastrado; itens_cardapio não tem chave natural
+WHERE NOT EXISTS (SELECT 1 FROM itens_cardapio);
@@ -0,0 +1,12 @@
+-- IDs de pedidos e linhas passam a vir de sequências com incremento 50 (allocationSize do Hibernate),
+-- permitindo INSERTs em lote. O otimizador pooled usa o valor da sequência como limite superior do bloco.
+
+CREATE SEQUENCE IF NOT EXISTS pedidos_seq INCREMENT BY 50;
+SELECT setval('pedidos_seq', COALESCE((SELECT MAX(id) FROM pedidos), 0) + 50, false);
+ALTER TABLE pedidos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE pedidos ALTER COLUMN id SET DEFAULT nextval('pedidos_seq');
+
+CREATE SEQUENCE IF NOT EXISTS pedido_itens_seq INCREMENT BY 50;
+SELECT setval('pedido_itens_seq', COALESCE((SELECT MAX(id) FROM pedido_itens), 0) + 50, false);
+ALTER TABLE pedido_itens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE pedido_itens ALTER COLUMN id SET DEFAULT nextval('pedido_itens_seq');
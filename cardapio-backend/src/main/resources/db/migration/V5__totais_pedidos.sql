@@ -0,0 +1,14 @@
+-- Totais gravados no pedido, mantidos pela aplicação a cada alteração das linhas
+
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS valor_total NUMERIC(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS quantidade_itens INTEGER NOT NULL DEFAULT 0;
+
+UPDATE pedidos p
+SET valor_total = t.valor_total,
+    quantidade_itens = t.quantidade_itens
+FROM (
+    SELECT pedido_id, SUM(preco_unitario * quantidade) AS valor_total, SUM(quantidade) AS quantidade_itens
+    FROM pedido_itens
+    GROUP BY pedido_id
+) t
+WHERE t.pedido_id = p.id;
@@ -0,0 +1,34 @@
+-- Contadores de vendas por hora e por item, mantidos pela aplicação a cada criação e entrega de pedido
+
+CREATE TABLE IF NOT EXISTS vendas_por_hora (
+    dia DATE NOT NULL,
+    hora INTEGER NOT NULL,
+    pedidos BIGINT NOT NULL,
+    pedidos_entregues BIGINT NOT NULL,
+    valor_vendas NUMERIC(14, 2) NOT NULL,
+    PRIMARY KEY (dia, hora)
+);
+
+CREATE TABLE IF NOT EXISTS vendas_por_item (
+    dia DATE NOT NULL,
+    item_cardapio_id BIGINT NOT NULL,
+    quantidade BIGINT NOT NULL,
+    PRIMARY KEY (dia, item_cardapio_id)
+);
+
+-- Carga inicial a partir do histórico (pedidos contam no dia e na hora em que foram criados)
+INSERT INTO vendas_por_hora (dia, hora, pedidos, pedidos_entregues, valor_vendas)
+SELECT CAST(p.data_criacao AS DATE), EXTRACT(HOUR FROM p.data_criacao), COUNT(*),
+       SUM(CASE WHEN p.status = 'ENTREGUE' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN p.status = 'ENTREGUE' THEN p.valor_total ELSE 0 END)
+FROM pedidos p
+GROUP BY CAST(p.data_criacao AS DATE), EXTRACT(HOUR FROM p.data_criacao)
+ON CONFLICT DO NOTHING;
+
+INSERT INTO vendas_por_item (dia, item_cardapio_id, quantidade)
+SELECT CAST(p.data_criacao AS DATE), pi.item_cardapio_id, SUM(pi.quantidade)
+FROM pedidos p
+JOIN pedido_itens pi ON pi.pedido_id = p.id
+WHERE p.status = 'ENTREGUE'
+GROUP BY CAST(p.data_criacao AS DATE), pi.item_cardapio_id
+ON CONFLICT DO NOTHING;
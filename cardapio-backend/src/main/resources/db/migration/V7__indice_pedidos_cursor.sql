@@ -0,0 +1,4 @@
+-- A listagem por cursor ordena e compara por (data_criacao, id); o índice composto atende também
+-- as consultas que filtravam apenas por data_criacao
+CREATE INDEX IF NOT EXISTS idx_pedidos_data_criacao_id ON pedidos (data_criacao, id);
+DROP INDEX IF EXISTS idx_pedidos_data_criacao;
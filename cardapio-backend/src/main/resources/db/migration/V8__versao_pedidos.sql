@@ -0,0 +1,3 @@
+-- Versão do pedido para controle de concorrência otimista; incrementada a cada mudança de status
+
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- Versão do item do cardápio, incrementada a cada alteração; cada instância compara a soma das versões dos
+-- itens ativos com a do cardápio em memória para perceber alterações feitas em outra instância
+
+ALTER TABLE itens_cardapio ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,93 @@
+package com.cardapio.benchmark;
+
+import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.service.CardapioSnapshot;
+import com.cardapio.service.IndiceBuscaCardapio;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca no cardápio com 50, 5.000 e 100.000 itens: índice em memória contra a varredura linear
+ * equivalente ao antigo {@code nome LIKE %:nome%} (que, além de tudo, não encontra "hamburguer" em "Hambúrguer").
+ * Mede também a atualização do índice após a alteração de um único item, comparada à reconstrução completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuscaCardapioBenchmark {
+
+    private static final String[] PRATOS = {"Hambúrguer", "Pão", "Açaí", "Frango", "Pizza", "Suco", "Limonada",
+            "Torta", "Pastel", "Feijoada", "Salada", "Picanha", "Tapioca", "Coxinha", "Moqueca", "Café"};
+    private static final String[] COMPLEMENTOS = {"de Calabresa", "com Catupiry", "Artesanal", "da Casa", "Especial",
+            "à Milanesa", "de Maçã", "Gratinado", "com Limão", "ao Molho Madeira", "Vegano", "Tradicional"};
+    private static final String[] DESCRICOES = {"Porção individual", "Acompanha fritas", "Serve duas pessoas",
+            "Feito na hora", "Com queijo derretido", "Receita da avó"};
+
+    @Param({"50", "5000", "100000"})
+    private int itens;
+
+    private List<ItemCardapioDTO> cardapio;
+    private IndiceBuscaCardapio indice;
+    private CardapioSnapshot comUmItemAlterado;
+
+    @Setup
+    public void setUp() {
+        cardapio = new ArrayList<>(itens);
+        for (int i = 0; i < itens; i++) {
+            String nome = PRATOS[i % PRATOS.length] + " " + COMPLEMENTOS[(i / PRATOS.length) % COMPLEMENTOS.length]
+                    + " " + (i + 1);
+            cardapio.add(new ItemCardapioDTO((long) i + 1, nome, DESCRICOES[i % DESCRICOES.length],
+                    new BigDecimal("19.90"), null, true));
+        }
+        indice = IndiceBuscaCardapio.construir(new CardapioSnapshot(0L, cardapio));
+
+        List<ItemCardapioDTO> alterado = new ArrayList<>(cardapio);
+        alterado.set(itens / 2, new ItemCardapioDTO((long) itens / 2 + 1, "Moqueca de Camarão", "Serve duas pessoas",
+                new BigDecimal("89.90"), null, true));
+        comUmItemAlterado = new CardapioSnapshot(1L, alterado);
+    }
+
+    @Benchmark
+    public List<ItemCardapioDTO> indice_palavraInteira() {
+        return indice.buscar("hamburguer", 50);
+    }
+
+    @Benchmark
+    public List<ItemCardapioDTO> indice_doisTermos() {
+        return indice.buscar("frango catupiry", 50);
+    }
+
+    @Benchmark
+    public List<ItemCardapioDTO> indice_prefixoCurto() {
+        return indice.buscar("pa", 50);
+    }
+
+    @Benchmark
+    public List<ItemCardapioDTO> antes_varreduraLinear() {
+        List<ItemCardapioDTO> encontrados = new ArrayList<>();
+        for (ItemCardapioDTO item : cardapio) {
+            if (item.getNome().toLowerCase(Locale.ROOT).contains("hambúrguer")) {
+                encontrados.add(item);
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public IndiceBuscaCardapio atualizacao_umItem() {
+        return indice.atualizar(comUmItemAlterado);
+    }
+
+    @Benchmark
+    public IndiceBuscaCardapio construcao_completa() {
+        return IndiceBuscaCardapio.construir(comUmItemAlterado);
+    }
+}
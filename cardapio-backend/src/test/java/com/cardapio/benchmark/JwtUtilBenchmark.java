@@ -0,0 +1,72 @@
+package com.cardapio.benchmark;
+
+import com.cardapio.model.Usuario;
+import com.cardapio.security.CustomUserDetails;
+import com.cardapio.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a verificação de um token como era feita pelo filtro JWT (três parsers
+ * construídos e três verificações HMAC por requisição) com a verificação única
+ * feita pelo parser reutilizável de {@link JwtUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SEGREDO = "chave-secreta-de-benchmark-com-pelo-menos-256-bits-de-tamanho";
+
+    private JwtUtil jwtUtil;
+    private SecretKey chave;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SEGREDO);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        jwtUtil.init();
+
+        Usuario usuario = new Usuario("Cozinha Principal", "cozinha@cardapio.com", "senha", "COZINHA");
+        usuario.setId(2L);
+        token = jwtUtil.generateToken(new CustomUserDetails(usuario));
+        chave = Keys.hmacShaKeyFor(SEGREDO.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public boolean antes_tresParsersPorRequisicao() {
+        String username = parsear(token).getSubject();
+        String subject = parsear(token).getSubject();
+        Date expiracao = parsear(token).getExpiration();
+        return username.equals(subject) && !expiracao.before(new Date());
+    }
+
+    @Benchmark
+    public Claims depois_verificacaoUnica() {
+        Claims claims = jwtUtil.verificarToken(token);
+        jwtUtil.extractRole(claims);
+        jwtUtil.extractUserId(claims);
+        return claims;
+    }
+
+    private Claims parsear(String jwt) {
+        return Jwts.parser()
+                .verifyWith(chave)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+}
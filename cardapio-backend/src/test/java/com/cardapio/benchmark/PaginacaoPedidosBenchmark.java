@@ -0,0 +1,117 @@
+package com.cardapio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a latência de uma página da listagem de pedidos na página 1 e na página 5.000 (20 por página):
+ * paginação por OFFSET com contagem, como em {@code listarPedidosPaginados}, e por cursor (data_criacao, id),
+ * como em {@code listarPedidosPorCursor}. Usa as mesmas instruções geradas pelo Hibernate, em um H2 em memória
+ * com 200 mil pedidos e o índice (data_criacao, id).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaginacaoPedidosBenchmark {
+
+    private static final int PEDIDOS = 200_000;
+    private static final int TAMANHO = 20;
+
+    @Param({"1", "5000"})
+    private int pagina;
+
+    private Connection conexao;
+    private PreparedStatement porOffset;
+    private PreparedStatement contagem;
+    private PreparedStatement primeiraPagina;
+    private PreparedStatement porCursor;
+
+    // Último pedido da página anterior, que o cliente recebe como token
+    private Timestamp cursorDataCriacao;
+    private long cursorId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        // Sem reaproveitar o resultado anterior: cada chamada executa a consulta de fato
+        conexao = DriverManager.getConnection("jdbc:h2:mem:paginacao;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;OPTIMIZE_REUSE_RESULTS=0");
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("CREATE TABLE pedidos (id BIGINT PRIMARY KEY, mesa VARCHAR(20), data_criacao TIMESTAMP(6) NOT NULL)");
+            // O H2 não percorre índices de trás para frente; no PostgreSQL o índice ascendente basta
+            ddl.execute("CREATE INDEX idx_pedidos_data_criacao_id ON pedidos (data_criacao DESC, id DESC)");
+            // Dois pedidos por segundo, para que o desempate pelo ID seja exercitado
+            ddl.execute("INSERT INTO pedidos SELECT g.x, 'Mesa ' || MOD(g.x, 50), " +
+                    "DATEADD('SECOND', g.x / 2, TIMESTAMP '2024-01-01 00:00:00') FROM SYSTEM_RANGE(1, " + PEDIDOS + ") g(x)");
+            ddl.execute("ANALYZE");
+        }
+
+        porOffset = conexao.prepareStatement("SELECT p.id FROM pedidos p ORDER BY p.data_criacao DESC, p.id DESC " +
+                "OFFSET ? ROWS FETCH FIRST ? ROWS ONLY");
+        contagem = conexao.prepareStatement("SELECT COUNT(p.id) FROM pedidos p");
+        primeiraPagina = conexao.prepareStatement("SELECT p.id FROM pedidos p " +
+                "ORDER BY p.data_criacao DESC, p.id DESC FETCH FIRST ? ROWS ONLY");
+        porCursor = conexao.prepareStatement("SELECT p.id FROM pedidos p WHERE (p.data_criacao, p.id) < (?, ?) " +
+                "ORDER BY p.data_criacao DESC, p.id DESC FETCH FIRST ? ROWS ONLY");
+
+        if (pagina > 1) {
+            try (PreparedStatement anterior = conexao.prepareStatement("SELECT p.data_criacao, p.id FROM pedidos p " +
+                    "ORDER BY p.data_criacao DESC, p.id DESC OFFSET ? ROWS FETCH FIRST 1 ROWS ONLY")) {
+                anterior.setInt(1, (pagina - 1) * TAMANHO - 1);
+                try (ResultSet rs = anterior.executeQuery()) {
+                    rs.next();
+                    cursorDataCriacao = rs.getTimestamp(1);
+                    cursorId = rs.getLong(2);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        conexao.close();
+    }
+
+    @Benchmark
+    public long offset_comContagem() throws SQLException {
+        porOffset.setInt(1, (pagina - 1) * TAMANHO);
+        porOffset.setInt(2, TAMANHO);
+        long soma = somarIds(porOffset);
+        try (ResultSet rs = contagem.executeQuery()) {
+            rs.next();
+            return soma + rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public long cursor() throws SQLException {
+        // Um pedido a mais indica se existe página seguinte
+        if (pagina == 1) {
+            primeiraPagina.setInt(1, TAMANHO + 1);
+            return somarIds(primeiraPagina);
+        }
+        porCursor.setTimestamp(1, cursorDataCriacao);
+        porCursor.setLong(2, cursorId);
+        porCursor.setInt(3, TAMANHO + 1);
+        return somarIds(porCursor);
+    }
+
+    private static long somarIds(PreparedStatement consulta) throws SQLException {
+        long soma = 0;
+        try (ResultSet rs = consulta.executeQuery()) {
+            while (rs.next()) {
+                soma += rs.getLong(1);
+            }
+        }
+        return soma;
+    }
+}
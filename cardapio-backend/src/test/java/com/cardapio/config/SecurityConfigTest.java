@@ -0,0 +1,48 @@
+package com.cardapio.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,metrics",
+        "management.endpoint.health.probes.enabled=true"})
+@AutoConfigureMockMvc
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void deveLiberarHealthParaSondasSemToken() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components").doesNotExist());
+        mockMvc.perform(get("/actuator/health/liveness")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health/readiness")).andExpect(status().isOk());
+    }
+
+    @Test
+    void deveExigirAdminNosDemaisEndpointsDoActuator() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    @WithMockUser(roles = "COZINHA")
+    void deveRecusarMetricasParaOutrosPerfis() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void devePermitirMetricasAoAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,66 @@
+package com.cardapio.config;
+
+import com.cardapio.sse.SseBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe a aplicação com o perfil {@code threads-virtuais}. Em Java 17 confere que o perfil é ignorado;
+ * em Java 21+ (mvn -P java21 test) confere que eventos e envios SSE saem dos pools de plataforma.
+ */
+@SpringBootTest(properties = {"cardapio.eventos.threads=2", "cardapio.eventos.capacidade-fila=50"})
+@ActiveProfiles("threads-virtuais")
+class ThreadsVirtuaisPerfilTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    @Qualifier("eventosExecutor")
+    private Executor eventosExecutor;
+
+    @Autowired
+    private SseBroadcaster sseBroadcaster;
+
+    @Test
+    void deveSubirOContextoComOPerfilAtivo() throws Exception {
+        // Given
+        boolean virtuais = Runtime.version().feature() >= 21;
+
+        // Then
+        assertTrue(environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        assertEquals(virtuais, AsyncConfig.threadsVirtuaisAtivas(true));
+
+        ThreadPoolTaskExecutor executor = assertInstanceOf(ThreadPoolTaskExecutor.class, eventosExecutor);
+        if (virtuais) {
+            // Sem fila: acima do limite a notificação é rejeitada em vez de bloquear quem publica
+            assertEquals(50, executor.getMaxPoolSize());
+            assertInstanceOf(SynchronousQueue.class, executor.getThreadPoolExecutor().getQueue());
+            assertNull(ReflectionTestUtils.getField(sseBroadcaster, "pool"));
+        } else {
+            assertEquals(2, executor.getMaxPoolSize());
+            assertEquals(50, executor.getQueueCapacity());
+            assertNotNull(ReflectionTestUtils.getField(sseBroadcaster, "pool"));
+        }
+
+        // When
+        CompletableFuture<String> nomeThread = new CompletableFuture<>();
+        eventosExecutor.execute(() -> nomeThread.complete(Thread.currentThread().getName()));
+
+        // Then
+        assertTrue(nomeThread.get(5, TimeUnit.SECONDS).startsWith("eventos-"));
+    }
+}
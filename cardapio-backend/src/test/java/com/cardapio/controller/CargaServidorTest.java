@@ -0,0 +1,223 @@
+package com.cardapio.controller;
+
+import com.cardapio.config.AsyncConfig;
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.Usuario;
+import com.cardapio.repository.ItemCardapioRepository;
+import com.cardapio.repository.UsuarioRepository;
+import com.cardapio.security.CustomUserDetails;
+import com.cardapio.security.JwtUtil;
+import com.cardapio.sse.CanalSse;
+import com.cardapio.sse.SseBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga do servidor completo: abre {@code carga.assinantes} conexões SSE da cozinha e, com todas
+ * abertas, envia pedidos de {@code carga.clientes} clientes simultâneos, medindo quantas telas conectaram,
+ * a latência dos pedidos (p50/p99) e quantos eventos chegaram às telas.
+ * <p>
+ * Rodar com os mesmos parâmetros nos dois modos e comparar o relatório impresso (o modo de threads virtuais
+ * exige um JDK 21 e ainda não foi medido; só há números do modo de plataforma, no README):
+ * <pre>
+ * mvn test -Dtest=CargaServidorTest -Dcarga.assinantes=2000
+ * mvn -P java21 test -Dtest=CargaServidorTest -Dcarga.assinantes=2000 -Dspring.threads.virtual.enabled=true
+ * </pre>
+ * Para achar o máximo de assinantes, aumentar {@code carga.assinantes} até as conexões começarem a falhar
+ * (o limite de descritores de arquivo do sistema operacional costuma vir antes).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.max-connections=20000",
+        "logging.level.com.cardapio=INFO"})
+@DirtiesContext
+@EnabledIfSystemProperty(named = "carga.assinantes", matches = "\\d+")
+class CargaServidorTest {
+
+    private static final Duration TEMPO_MAXIMO = Duration.ofSeconds(60);
+
+    @LocalServerPort
+    private int porta;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean threadsVirtuais;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private SseBroadcaster sseBroadcaster;
+
+    @Test
+    void deveAtenderAssinantesEPedidosSimultaneos() throws Exception {
+        // Given
+        int quantidadeAssinantes = Integer.getInteger("carga.assinantes");
+        int quantidadeClientes = Integer.getInteger("carga.clientes", 50);
+        int quantidadePedidos = Integer.getInteger("carga.pedidos", 500);
+
+        Usuario cozinha = usuarioRepository.save(
+                new Usuario("Cozinha", "cozinha@carga.com", passwordEncoder.encode("senha"), "COZINHA"));
+        String token = jwtUtil.generateToken(new CustomUserDetails(cozinha));
+        Long itemId = itemCardapioRepository.save(
+                new ItemCardapio("X-Salada", "Carga", new BigDecimal("25.90"), null)).getId();
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // When: todas as telas conectadas antes do primeiro pedido
+        AtomicLong eventosRecebidos = new AtomicLong();
+        List<CompletableFuture<HttpResponse<Void>>> conexoes = new ArrayList<>();
+        for (int i = 0; i < quantidadeAssinantes; i++) {
+            HttpRequest stream = HttpRequest.newBuilder(uri("/cozinha/pedidos/stream"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Accept", "text/event-stream")
+                    .build();
+            conexoes.add(cliente.sendAsync(stream,
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new ContadorEventos(eventosRecebidos))));
+        }
+        // O SseEmitter só envia os cabeçalhos com o primeiro evento; conta-se quem o servidor já registrou
+        long prazo = System.currentTimeMillis() + TEMPO_MAXIMO.toMillis();
+        while (sseBroadcaster.contarAssinantes(CanalSse.COZINHA) < quantidadeAssinantes
+                && System.currentTimeMillis() < prazo) {
+            Thread.sleep(100);
+        }
+        int conectados = sseBroadcaster.contarAssinantes(CanalSse.COZINHA);
+
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<String> pedido = new HttpEntity<>("{\"mesa\":\"Mesa 1\",\"itens\":[{\"itemId\":" + itemId
+                + ",\"quantidade\":1,\"precoUnitario\":25.90}]}", cabecalhos);
+        long[] latencias = new long[quantidadePedidos];
+        AtomicInteger proximo = new AtomicInteger();
+        AtomicInteger falhas = new AtomicInteger();
+        ExecutorService clientes = Executors.newFixedThreadPool(quantidadeClientes);
+        long inicio = System.nanoTime();
+        List<Future<?>> envios = new ArrayList<>();
+        for (int c = 0; c < quantidadeClientes; c++) {
+            envios.add(clientes.submit(() -> {
+                int indice;
+                while ((indice = proximo.getAndIncrement()) < quantidadePedidos) {
+                    long antes = System.nanoTime();
+                    ResponseEntity<Void> resposta = restTemplate.postForEntity("/pedidos", pedido, Void.class);
+                    latencias[indice] = System.nanoTime() - antes;
+                    if (resposta.getStatusCode() != HttpStatus.CREATED) {
+                        falhas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> envio : envios) {
+            envio.get(TEMPO_MAXIMO.toSeconds(), TimeUnit.SECONDS);
+        }
+        long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        clientes.shutdown();
+
+        long esperados = (long) conectados * quantidadePedidos;
+        prazo = System.currentTimeMillis() + TEMPO_MAXIMO.toMillis();
+        while (eventosRecebidos.get() < esperados && System.currentTimeMillis() < prazo) {
+            Thread.sleep(100);
+        }
+        conexoes.forEach(conexao -> conexao.cancel(true));
+
+        // Then
+        Arrays.sort(latencias);
+        System.out.printf("%n=== Carga: threads %s, Java %s ===%n",
+                AsyncConfig.threadsVirtuaisAtivas(threadsVirtuais) ? "virtuais" : "de plataforma",
+                Runtime.version().feature());
+        System.out.printf("Assinantes SSE conectados: %d de %d%n", conectados, quantidadeAssinantes);
+        System.out.printf("Pedidos: %d em %d ms com %d clientes, %d falhas%n",
+                quantidadePedidos, duracaoMs, quantidadeClientes, falhas.get());
+        System.out.printf("Latência dos pedidos: p50 %.1f ms, p99 %.1f ms, máx %.1f ms%n",
+                percentil(latencias, 50), percentil(latencias, 99), latencias[latencias.length - 1] / 1e6);
+        // Telas que não acompanham são desconectadas pelo broadcaster e, na prática, reconectam com Last-Event-ID
+        System.out.printf("Eventos entregues às telas: %d de %d (%d telas desconectadas por lentidão)%n%n",
+                eventosRecebidos.get(), esperados, sseBroadcaster.getExpulsoes());
+
+        assertEquals(quantidadeAssinantes, conectados, "Todas as telas devem conectar");
+        assertEquals(0, falhas.get(), "Todos os pedidos devem ser criados");
+    }
+
+    private URI uri(String caminho) {
+        return URI.create("http://localhost:" + porta + caminho);
+    }
+
+    private static double percentil(long[] ordenadas, int percentil) {
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    // Conta os eventos de pedido novo sem ocupar uma thread por conexão
+    private static final class ContadorEventos implements Flow.Subscriber<String> {
+
+        private final AtomicLong eventos;
+
+        private ContadorEventos(AtomicLong eventos) {
+            this.eventos = eventos;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            assinatura.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String linha) {
+            if (linha.startsWith("event:novo-pedido")) {
+                eventos.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cardapio.evento;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.StatusLoteRequest;
+import com.cardapio.mapper.PedidoMapperImpl;
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.service.PedidoService;
+import com.cardapio.service.QuadroPedidosAtivos;
+import com.cardapio.sse.CanalSse;
+import com.cardapio.sse.SseBroadcaster;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Garante que as telas só são notificadas depois que a transação do pedido é confirmada.
+ * Sem @EnableAsync neste contexto o ouvinte roda de forma síncrona, o que simplifica as verificações.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PedidoService.class, PedidoMapperImpl.class, NotificadorPedidos.class})
+class NotificadorPedidosTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private SseBroadcaster sseBroadcaster;
+
+    @MockBean
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+
+    private PedidoDTO pedidoDTO;
+
+    @BeforeEach
+    void setUp() {
+        ItemCardapio item = new ItemCardapio("Hambúrguer", "Delicioso hambúrguer", new BigDecimal("25.90"), null);
+        entityManager.persist(item);
+        pedidoDTO = new PedidoDTO("Mesa 5",
+                Arrays.asList(new PedidoItemDTO(item.getId(), 1, new BigDecimal("25.90"))), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!TestTransaction.isActive()) {
+            TestTransaction.start();
+        }
+        entityManager.createQuery("DELETE FROM PedidoItem").executeUpdate();
+        entityManager.createQuery("DELETE FROM Pedido").executeUpdate();
+        entityManager.createQuery("DELETE FROM ItemCardapio").executeUpdate();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    @Test
+    void naoDeveNotificarCozinhaQuandoTransacaoSofreRollback() {
+        // When
+        pedidoService.criarPedido(pedidoDTO);
+        verifyNoInteractions(sseBroadcaster);
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+
+        // Then
+        verifyNoInteractions(sseBroadcaster);
+    }
+
+    @Test
+    void deveNotificarCozinhaAposCommit() {
+        // When
+        pedidoService.criarPedido(pedidoDTO);
+        verifyNoInteractions(sseBroadcaster);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then
+        verify(sseBroadcaster).publicar(eq(CanalSse.COZINHA), eq("novo-pedido"), any(PedidoDTO.class));
+    }
+
+    @Test
+    void deveNotificarGarcomUmaVezPorLote() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(pedidoService.criarPedido(pedidoDTO).getId());
+        }
+        pedidoService.atualizarStatusEmLote(
+                new StatusLoteRequest(ids, PedidoStatus.EM_PREPARO, PedidoStatus.RECEBIDO));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+
+        // When
+        pedidoService.atualizarStatusEmLote(new StatusLoteRequest(ids, PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO));
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        // Then
+        verify(sseBroadcaster).publicar(eq(CanalSse.GARCOM), eq("pedidos-prontos"),
+                argThat(pedidos -> ((List<?>) pedidos).size() == 3));
+        verify(sseBroadcaster, never()).publicar(eq(CanalSse.GARCOM), eq("pedido-pronto"), any());
+    }
+}
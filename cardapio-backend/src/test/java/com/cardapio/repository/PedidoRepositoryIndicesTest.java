@@ -0,0 +1,134 @@
+package com.cardapio.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda EXPLAIN das consultas quentes do PedidoRepository contra um PostgreSQL local com 1 milhão de pedidos
+ * e falha se alguma delas recorrer a um Seq Scan em pedidos ou pedido_itens.
+ * <p>
+ * O esquema vem das migrações do Flyway, como em produção. Requer um banco vazio e descartável:
+ * <pre>
+ * mvn test -Dtest=PedidoRepositoryIndicesTest \
+ *     -Dexplain.url=jdbc:postgresql://localhost:5432/cardapio_explain \
+ *     -Dexplain.usuario=cardapio_user -Dexplain.senha=cardapio_pass
+ * </pre>
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "explain.url", matches = "jdbc:postgresql:.+")
+class PedidoRepositoryIndicesTest {
+
+    private static final int PEDIDOS = 1_000_000;
+
+    private static final String COLUNAS_QUADRO =
+            "p.id, p.mesa, p.status, p.data_criacao, p.data_atualizacao, p.observacoes, p.valor_total, p.quantidade_itens, " +
+            "p.versao, pi.id, i.id, i.nome, pi.quantidade, pi.preco_unitario, pi.observacoes_item";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void configurarPostgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("explain.url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("explain.usuario", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("explain.senha", ""));
+        // Esquema criado pelas migrações e conferido pelo Hibernate, como em produção
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Test
+    void consultasQuentesDevemUsarIndices() {
+        // Given
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        popularBanco(jdbc);
+
+        // When
+        Map<String, String> planos = new LinkedHashMap<>();
+        consultasQuentes().forEach((nome, sql) ->
+                planos.put(nome, String.join("\n", jdbc.queryForList("EXPLAIN " + sql, String.class))));
+
+        // Then
+        List<String> falhas = new ArrayList<>();
+        planos.forEach((nome, plano) -> {
+            if (plano.contains("Seq Scan on pedidos") || plano.contains("Seq Scan on pedido_itens")) {
+                falhas.add(nome + ":\n" + plano);
+            }
+        });
+        assertTrue(falhas.isEmpty(), "Consultas com Seq Scan:\n\n" + String.join("\n\n", falhas));
+    }
+
+    // SQL equivalente ao gerado pelo Hibernate para cada método do PedidoRepository
+    private static Map<String, String> consultasQuentes() {
+        Map<String, String> consultas = new LinkedHashMap<>();
+        consultas.put("quadro da cozinha",
+                "SELECT " + COLUNAS_QUADRO + " FROM pedidos p " +
+                "LEFT JOIN pedido_itens pi ON pi.pedido_id = p.id LEFT JOIN itens_cardapio i ON i.id = pi.item_cardapio_id " +
+                "WHERE p.status IN ('RECEBIDO', 'EM_PREPARO', 'PRONTO') ORDER BY p.data_criacao, p.id, pi.id");
+        consultas.put("quadro do garçom",
+                "SELECT " + COLUNAS_QUADRO + " FROM pedidos p " +
+                "LEFT JOIN pedido_itens pi ON pi.pedido_id = p.id LEFT JOIN itens_cardapio i ON i.id = pi.item_cardapio_id " +
+                "WHERE p.status IN ('PRONTO') ORDER BY p.data_criacao, p.id, pi.id");
+        consultas.put("conferência do quadro",
+                "SELECT count(p.id), sum(p.versao), sum(p.id) FROM pedidos p " +
+                "WHERE p.status IN ('RECEBIDO', 'EM_PREPARO', 'PRONTO')");
+        consultas.put("pedidos por mesa",
+                "SELECT p.*, pi.*, i.* FROM pedidos p " +
+                "LEFT JOIN pedido_itens pi ON pi.pedido_id = p.id LEFT JOIN itens_cardapio i ON i.id = pi.item_cardapio_id " +
+                "WHERE p.mesa = 'Mesa 7' ORDER BY p.data_criacao DESC");
+        consultas.put("IDs por período",
+                "SELECT p.id FROM pedidos p WHERE p.data_criacao BETWEEN now() - interval '1 day' AND now() " +
+                "ORDER BY p.data_criacao DESC OFFSET 20 LIMIT 20");
+        consultas.put("contagem por período",
+                "SELECT count(p.id) FROM pedidos p WHERE p.data_criacao BETWEEN now() - interval '1 day' AND now()");
+        consultas.put("página mais recente",
+                "SELECT p.id FROM pedidos p ORDER BY p.data_criacao DESC OFFSET 0 LIMIT 20");
+        consultas.put("página por cursor",
+                "SELECT p.id FROM pedidos p WHERE (p.data_criacao, p.id) < (now() - interval '100 days', 500000) " +
+                "ORDER BY p.data_criacao DESC, p.id DESC LIMIT 21");
+        consultas.put("página por cursor no período",
+                "SELECT p.id FROM pedidos p WHERE p.data_criacao BETWEEN now() - interval '1 day' AND now() " +
+                "AND (p.data_criacao, p.id) < (now() - interval '12 hours', 999000) " +
+                "ORDER BY p.data_criacao DESC, p.id DESC LIMIT 21");
+        consultas.put("pedidos da página",
+                "SELECT p.*, pi.*, i.* FROM pedidos p " +
+                "LEFT JOIN pedido_itens pi ON pi.pedido_id = p.id LEFT JOIN itens_cardapio i ON i.id = pi.item_cardapio_id " +
+                "WHERE p.id IN (1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20)");
+        return consultas;
+    }
+
+    // Um pedido a cada 30 segundos (cerca de um ano), 1 em cada 1000 ainda ativo, 1000 mesas e 2 linhas por pedido
+    private static void popularBanco(JdbcTemplate jdbc) {
+        jdbc.execute("TRUNCATE pedido_itens, pedidos, itens_cardapio RESTART IDENTITY CASCADE");
+        jdbc.execute("INSERT INTO itens_cardapio (nome, descricao, preco, ativo) " +
+                "SELECT 'Item ' || g, 'Descrição ' || g, 10.00, true FROM generate_series(1, 50) g");
+        jdbc.execute("INSERT INTO pedidos (mesa, status, data_criacao, data_atualizacao) " +
+                "SELECT 'Mesa ' || (g % 1000), " +
+                "CASE g % 1000 WHEN 0 THEN 'RECEBIDO' WHEN 1 THEN 'EM_PREPARO' WHEN 2 THEN 'PRONTO' ELSE 'ENTREGUE' END, " +
+                "now() - g * interval '30 seconds', now() - g * interval '30 seconds' " +
+                "FROM generate_series(1, " + PEDIDOS + ") g");
+        jdbc.execute("INSERT INTO pedido_itens (pedido_id, item_cardapio_id, quantidade, preco_unitario) " +
+                "SELECT p.id, 1 + (p.id + n) % 50, 1, 10.00 FROM pedidos p CROSS JOIN generate_series(1, 2) n");
+        jdbc.execute("ANALYZE itens_cardapio");
+        jdbc.execute("ANALYZE pedidos");
+        jdbc.execute("ANALYZE pedido_itens");
+    }
+}
@@ -0,0 +1,107 @@
+package com.cardapio.security;
+
+import com.cardapio.model.Usuario;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerificadoCacheTest {
+
+    private JwtUtil jwtUtil;
+    private TokenVerificadoCache tokenVerificadoCache;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretString", "chave-secreta-de-testes-com-pelo-menos-256-bits-de-tamanho");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60000L);
+        jwtUtil.init();
+
+        tokenVerificadoCache = new TokenVerificadoCache();
+        ReflectionTestUtils.setField(tokenVerificadoCache, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(tokenVerificadoCache, "habilitado", true);
+        ReflectionTestUtils.setField(tokenVerificadoCache, "tamanhoMaximo", 2);
+
+        token = gerarToken(2L, "cozinha@cardapio.com");
+    }
+
+    @Test
+    void deveReutilizarClaimsDeTokenJaVerificado() {
+        // When
+        Claims primeira = tokenVerificadoCache.verificar(token);
+        Claims segunda = tokenVerificadoCache.verificar(token);
+
+        // Then
+        assertSame(primeira, segunda);
+        assertEquals("cozinha@cardapio.com", segunda.getSubject());
+        assertEquals(1L, tokenVerificadoCache.estatisticas().get("acertos"));
+        assertEquals(1L, tokenVerificadoCache.estatisticas().get("falhas"));
+    }
+
+    @Test
+    void deveRejeitarTokenAdulterado() {
+        // Given
+        int inicioAssinatura = token.lastIndexOf('.') + 1;
+        char trocado = token.charAt(inicioAssinatura) == 'A' ? 'B' : 'A';
+        String adulterado = token.substring(0, inicioAssinatura) + trocado + token.substring(inicioAssinatura + 1);
+
+        // When & Then
+        assertThrows(JwtException.class, () -> tokenVerificadoCache.verificar(adulterado));
+        assertEquals(0L, tokenVerificadoCache.estatisticas().get("tamanho"));
+    }
+
+    @Test
+    void deveRespeitarTamanhoMaximo() {
+        // When
+        tokenVerificadoCache.verificar(gerarToken(1L, "a@cardapio.com"));
+        tokenVerificadoCache.verificar(gerarToken(2L, "b@cardapio.com"));
+        tokenVerificadoCache.verificar(gerarToken(3L, "c@cardapio.com"));
+
+        // Then
+        assertEquals(2L, tokenVerificadoCache.estatisticas().get("tamanho"));
+        assertEquals(1L, tokenVerificadoCache.estatisticas().get("expulsoes"));
+    }
+
+    @Test
+    void deveDescartarOTokenUsadoHaMaisTempo() {
+        // Given
+        String primeiro = gerarToken(1L, "a@cardapio.com");
+        String segundo = gerarToken(2L, "b@cardapio.com");
+        tokenVerificadoCache.verificar(primeiro);
+        tokenVerificadoCache.verificar(segundo);
+        tokenVerificadoCache.verificar(primeiro);
+
+        // When
+        tokenVerificadoCache.verificar(gerarToken(3L, "c@cardapio.com"));
+        tokenVerificadoCache.verificar(primeiro);
+
+        // Then: o primeiro, usado por último, continua no cache; o segundo saiu
+        assertEquals(2L, tokenVerificadoCache.estatisticas().get("acertos"));
+        tokenVerificadoCache.verificar(segundo);
+        assertEquals(4L, tokenVerificadoCache.estatisticas().get("falhas"));
+    }
+
+    @Test
+    void naoDeveArmazenarQuandoDesabilitado() {
+        // Given
+        ReflectionTestUtils.setField(tokenVerificadoCache, "habilitado", false);
+
+        // When
+        Claims claims = tokenVerificadoCache.verificar(token);
+
+        // Then
+        assertEquals("cozinha@cardapio.com", claims.getSubject());
+        assertEquals(0L, tokenVerificadoCache.estatisticas().get("tamanho"));
+    }
+
+    private String gerarToken(Long id, String email) {
+        Usuario usuario = new Usuario("Usuário", email, "senha", "COZINHA");
+        usuario.setId(id);
+        return jwtUtil.generateToken(new CustomUserDetails(usuario));
+    }
+}
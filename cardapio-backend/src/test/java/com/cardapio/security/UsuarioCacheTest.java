@@ -0,0 +1,113 @@
+package com.cardapio.security;
+
+import com.cardapio.model.Usuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioCacheTest {
+
+    private UsuarioCache usuarioCache;
+
+    @BeforeEach
+    void setUp() {
+        usuarioCache = new UsuarioCache();
+        ReflectionTestUtils.setField(usuarioCache, "habilitado", true);
+        ReflectionTestUtils.setField(usuarioCache, "tamanhoMaximo", 2);
+        ReflectionTestUtils.setField(usuarioCache, "ttl", 60000L);
+    }
+
+    @Test
+    void deveRetornarUsuarioArmazenado() {
+        // Given
+        CustomUserDetails usuario = criarUsuario(1L, "cozinha@cardapio.com");
+
+        // When
+        usuarioCache.armazenar(usuario);
+
+        // Then
+        assertSame(usuario, usuarioCache.buscar("cozinha@cardapio.com"));
+    }
+
+    @Test
+    void naoDeveManterASenhaEmCache() {
+        // When
+        usuarioCache.armazenar(criarUsuario(1L, "cozinha@cardapio.com"));
+
+        // Then
+        CustomUserDetails emCache = usuarioCache.buscar("cozinha@cardapio.com");
+        assertNull(emCache.getPassword());
+        assertEquals("ROLE_COZINHA", emCache.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void deveDescartarUsuarioExpirado() {
+        // Given
+        ReflectionTestUtils.setField(usuarioCache, "ttl", -1L);
+        usuarioCache.armazenar(criarUsuario(1L, "cozinha@cardapio.com"));
+
+        // When & Then
+        assertNull(usuarioCache.buscar("cozinha@cardapio.com"));
+        assertEquals(0, usuarioCache.tamanho());
+    }
+
+    @Test
+    void deveRespeitarTamanhoMaximo() {
+        // When
+        usuarioCache.armazenar(criarUsuario(1L, "a@cardapio.com"));
+        usuarioCache.armazenar(criarUsuario(2L, "b@cardapio.com"));
+        usuarioCache.armazenar(criarUsuario(3L, "c@cardapio.com"));
+
+        // Then
+        assertEquals(2, usuarioCache.tamanho());
+        assertNotNull(usuarioCache.buscar("c@cardapio.com"));
+    }
+
+    @Test
+    void deveDescartarOUsuarioUsadoHaMaisTempo() {
+        // Given
+        usuarioCache.armazenar(criarUsuario(1L, "a@cardapio.com"));
+        usuarioCache.armazenar(criarUsuario(2L, "b@cardapio.com"));
+        usuarioCache.buscar("a@cardapio.com");
+
+        // When
+        usuarioCache.armazenar(criarUsuario(3L, "c@cardapio.com"));
+
+        // Then
+        assertNotNull(usuarioCache.buscar("a@cardapio.com"));
+        assertNull(usuarioCache.buscar("b@cardapio.com"));
+        assertNotNull(usuarioCache.buscar("c@cardapio.com"));
+    }
+
+    @Test
+    void deveInvalidarPorId() {
+        // Given
+        usuarioCache.armazenar(criarUsuario(1L, "garcom@cardapio.com"));
+
+        // When
+        usuarioCache.invalidarAposCommit(1L);
+
+        // Then
+        assertNull(usuarioCache.buscar("garcom@cardapio.com"));
+    }
+
+    @Test
+    void naoDeveArmazenarQuandoDesabilitado() {
+        // Given
+        ReflectionTestUtils.setField(usuarioCache, "habilitado", false);
+
+        // When
+        usuarioCache.armazenar(criarUsuario(1L, "admin@cardapio.com"));
+
+        // Then
+        assertNull(usuarioCache.buscar("admin@cardapio.com"));
+    }
+
+    private CustomUserDetails criarUsuario(Long id, String email) {
+        Usuario usuario = new Usuario("Usuário", email, "senha-criptografada", "COZINHA");
+        usuario.setId(id);
+        return new CustomUserDetails(usuario);
+    }
+}
@@ -0,0 +1,187 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.ItemCardapioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BuscaCardapioTest {
+
+    private static final String[] PRATOS = {"Pastel de Carne", "Pastel de Frango", "Pizza Calabresa",
+            "Esfirra Aberta", "Parmegiana de Frango", "Pudim", "Espetinho Misto"};
+
+    @Mock
+    private MenuService menuService;
+
+    @InjectMocks
+    private BuscaCardapio buscaCardapio;
+
+    private List<ItemCardapioDTO> itens;
+
+    @BeforeEach
+    void setUp() {
+        itens = new ArrayList<>(List.of(
+                item(1L, "Hambúrguer Artesanal", "Pão brioche e queijo"),
+                item(2L, "Suco de Limão", "Natural"),
+                item(3L, "Limonada Suíça", "Com leite condensado"),
+                item(4L, "Torta de Maçã", "Com raspas de limão"),
+                item(5L, "Pão de Queijo", "Porção com 10 unidades"),
+                item(6L, "Empada de Frango", "Massa amanteigada"),
+                item(7L, "Açaí na Tigela", "Com granola")));
+        when(menuService.obterSnapshotCardapio()).thenReturn(new CardapioSnapshot(0L, itens));
+    }
+
+    @Test
+    void deveIgnorarAcentosEMaiusculas() {
+        assertEquals(List.of(1L), ids(buscaCardapio.buscar("hamburguer", 10)));
+        assertEquals(List.of(7L), ids(buscaCardapio.buscar("ACAI", 10)));
+        assertEquals(List.of(4L), ids(buscaCardapio.buscar("maca", 10)));
+    }
+
+    @Test
+    void deveOrdenarPorRelevancia() {
+        // Palavra do nome, início de palavra do nome e, por último, descrição
+        assertEquals(List.of(2L, 4L), ids(buscaCardapio.buscar("limão", 10)));
+        assertEquals(List.of(3L, 2L, 4L), ids(buscaCardapio.buscar("lim", 10)));
+        assertEquals(List.of(3L), ids(buscaCardapio.buscar("lim", 1)));
+    }
+
+    @Test
+    void deveBuscarTermosCurtosPeloInicioDasPalavras() {
+        // "pa" aparece no meio de "Empada", que fica de fora
+        assertEquals(List.of(5L, 1L), ids(buscaCardapio.buscar("pa", 10)));
+    }
+
+    @Test
+    void deveExigirTodosOsTermos() {
+        assertEquals(List.of(5L, 1L), ids(buscaCardapio.buscar("pão queijo", 10)));
+        assertTrue(buscaCardapio.buscar("pão pizza", 10).isEmpty());
+        assertTrue(buscaCardapio.buscar("  ", 10).isEmpty());
+    }
+
+    @Test
+    void deveReutilizarIndiceEnquantoVersaoNaoMudar() {
+        // When
+        buscaCardapio.buscar("suco", 10);
+        buscaCardapio.buscar("torta", 10);
+
+        // Then
+        verify(menuService, times(1)).obterSnapshotCardapio();
+    }
+
+    @Test
+    void deveAtualizarIndiceQuandoVersaoMudar() {
+        // Given
+        buscaCardapio.buscar("suco", 10);
+        List<ItemCardapioDTO> alterados = new ArrayList<>(itens);
+        alterados.set(1, item(2L, "Suco de Laranja", "Natural"));
+        alterados.remove(5);
+        alterados.add(item(8L, "Limão Siciliano", "Fatias"));
+        when(menuService.getVersaoCardapio()).thenReturn(1L);
+        when(menuService.obterSnapshotCardapio()).thenReturn(new CardapioSnapshot(1L, alterados));
+
+        // When
+        IndiceBuscaCardapio incremental = buscaCardapio.obterIndice();
+        IndiceBuscaCardapio completo = IndiceBuscaCardapio.construir(new CardapioSnapshot(1L, alterados));
+
+        // Then
+        assertEquals(1L, incremental.getVersao());
+        assertEquals(List.of(8L, 4L), ids(incremental.buscar("limao", 10)));
+        assertEquals(List.of(2L), ids(incremental.buscar("laranja", 10)));
+        assertTrue(incremental.buscar("empada", 10).isEmpty());
+        for (String busca : List.of("lim", "suco", "com", "pa", "de", "queijo", "frango", "fatias")) {
+            assertEquals(ids(completo.buscar(busca, 10)), ids(incremental.buscar(busca, 10)), busca);
+        }
+    }
+
+    @Test
+    void deveManterChavesQuandoSoOPrecoMuda() {
+        // Given
+        IndiceBuscaCardapio anterior = buscaCardapio.obterIndice();
+        List<ItemCardapioDTO> alterados = new ArrayList<>(itens);
+        alterados.set(0, new ItemCardapioDTO(1L, "Hambúrguer Artesanal", "Pão brioche e queijo",
+                new BigDecimal("39.90"), null, true));
+        when(menuService.getVersaoCardapio()).thenReturn(1L);
+        when(menuService.obterSnapshotCardapio()).thenReturn(new CardapioSnapshot(1L, alterados));
+
+        // When
+        List<ItemCardapioDTO> encontrados = buscaCardapio.buscar("hamburguer", 1);
+
+        // Then
+        assertEquals(new BigDecimal("39.90"), encontrados.get(0).getPreco());
+        assertEquals(new BigDecimal("25.90"), anterior.buscar("hamburguer", 1).get(0).getPreco());
+    }
+
+    @Test
+    void deveAtualizarPoucosItensComoSeReconstruisse() {
+        // Given
+        buscaCardapio.obterIndice();
+        List<ItemCardapioDTO> cardapio = new ArrayList<>(itens);
+        for (long id = 8; id <= 400; id++) {
+            cardapio.add(item(id, PRATOS[(int) id % PRATOS.length] + " " + id, "Acompanha " + PRATOS[(int) id % 3]));
+        }
+        Random aleatorio = new Random(42);
+
+        for (long versao = 1; versao <= 30; versao++) {
+            // When: versão 1 monta tudo de novo; as demais incluem, removem ou renomeiam poucos itens
+            if (versao > 1) {
+                for (int alteracao = 0; alteracao < 3; alteracao++) {
+                    int posicao = aleatorio.nextInt(cardapio.size());
+                    ItemCardapioDTO sorteado = cardapio.get(posicao);
+                    String nome = PRATOS[aleatorio.nextInt(PRATOS.length)] + " " + sorteado.getId();
+                    switch (aleatorio.nextInt(3)) {
+                        case 0 -> cardapio.remove(posicao);
+                        case 1 -> cardapio.set(posicao, item(sorteado.getId(), nome, sorteado.getDescricao()));
+                        default -> cardapio.add(item(1000 + versao * 10 + alteracao, nome, "Novo"));
+                    }
+                }
+            }
+            when(menuService.getVersaoCardapio()).thenReturn(versao);
+            when(menuService.obterSnapshotCardapio()).thenReturn(new CardapioSnapshot(versao, List.copyOf(cardapio)));
+            IndiceBuscaCardapio incremental = buscaCardapio.obterIndice();
+            IndiceBuscaCardapio completo = IndiceBuscaCardapio.construir(new CardapioSnapshot(versao, cardapio));
+
+            // Then
+            assertEquals(cardapio.size(), incremental.getQuantidadeItens());
+            for (String busca : List.of("pastel", "frango", "pa", "es", "acompanha", "novo", "12", "pizza calabresa")) {
+                assertEquals(ids(completo.buscar(busca, 500)), ids(incremental.buscar(busca, 500)),
+                        "versão " + versao + ", busca " + busca);
+            }
+        }
+    }
+
+    @Test
+    void deveLimitarQuantidadeDeResultados() {
+        // Given
+        List<ItemCardapioDTO> cardapio = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            cardapio.add(item(id, "Pastel " + id, "Frito na hora"));
+        }
+        when(menuService.obterSnapshotCardapio()).thenReturn(new CardapioSnapshot(0L, cardapio));
+
+        // When & Then: o limite pedido não dimensiona nada além do máximo
+        assertEquals(IndiceBuscaCardapio.LIMITE_MAXIMO, buscaCardapio.buscar("pastel", Integer.MAX_VALUE).size());
+        assertEquals(3, buscaCardapio.buscar("pastel", 3).size());
+        assertTrue(buscaCardapio.buscar("pastel", 0).isEmpty());
+    }
+
+    private static ItemCardapioDTO item(Long id, String nome, String descricao) {
+        return new ItemCardapioDTO(id, nome, descricao, new BigDecimal("25.90"), null, true);
+    }
+
+    private static List<Long> ids(List<ItemCardapioDTO> itens) {
+        return itens.stream().map(ItemCardapioDTO::getId).toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.service.CardapioRespostaCache.CardapioSerializado;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CardapioRespostaCacheTest {
+
+    @Mock
+    private MenuService menuService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private CardapioRespostaCache cardapioRespostaCache;
+
+    private CardapioSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        ItemCardapioDTO item = new ItemCardapioDTO(1L, "Hambúrguer", "Delicioso hambúrguer",
+                new BigDecimal("25.90"), "url-imagem", true);
+        snapshot = new CardapioSnapshot(0L, Arrays.asList(item));
+    }
+
+    @Test
+    void deveReutilizarBytesEnquantoVersaoNaoMudar() throws Exception {
+        // Given
+        when(menuService.getVersaoCardapio()).thenReturn(0L);
+        when(menuService.obterSnapshotCardapio()).thenReturn(snapshot);
+
+        // When
+        CardapioSerializado primeira = cardapioRespostaCache.obter();
+        CardapioSerializado segunda = cardapioRespostaCache.obter();
+
+        // Then
+        assertSame(primeira, segunda);
+        verify(menuService, times(1)).obterSnapshotCardapio();
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+    }
+
+    @Test
+    void deveSerializarNovamenteQuandoVersaoMudar() {
+        // Given
+        CardapioSnapshot snapshotNovo = new CardapioSnapshot(1L, Arrays.asList(
+                new ItemCardapioDTO(2L, "Pizza", "Pizza deliciosa", new BigDecimal("30.00"), "url", true)));
+        when(menuService.getVersaoCardapio()).thenReturn(1L);
+        when(menuService.obterSnapshotCardapio()).thenReturn(snapshot, snapshotNovo);
+
+        // When
+        CardapioSerializado primeira = cardapioRespostaCache.obter();
+        CardapioSerializado segunda = cardapioRespostaCache.obter();
+
+        // Then
+        assertEquals(1L, segunda.getVersao());
+        assertNotEquals(primeira.getEtag(), segunda.getEtag());
+    }
+
+    @Test
+    void deveCompararEtagDoCliente() {
+        // Given
+        when(menuService.obterSnapshotCardapio()).thenReturn(snapshot);
+        CardapioSerializado cardapio = cardapioRespostaCache.obter();
+
+        // Then
+        assertTrue(cardapio.correspondeA(cardapio.getEtag()));
+        assertTrue(cardapio.correspondeA("\"outro\", W/" + cardapio.getEtag()));
+        assertTrue(cardapio.correspondeA("*"));
+        assertTrue(cardapio.correspondeA(cardapio.getEtagGzip()));
+        assertNotEquals(cardapio.getEtag(), cardapio.getEtagGzip());
+        assertTrue(cardapio.getEtagGzip().startsWith("\"") && cardapio.getEtagGzip().endsWith("-gzip\""));
+        assertFalse(cardapio.correspondeA("\"outro\""));
+        assertFalse(cardapio.correspondeA(null));
+    }
+
+    @Test
+    void deveRespeitarPesosDoAcceptEncoding() {
+        assertTrue(CardapioRespostaCache.aceitaGzip("gzip"));
+        assertTrue(CardapioRespostaCache.aceitaGzip("br, GZIP;q=0.5"));
+        assertTrue(CardapioRespostaCache.aceitaGzip("deflate, *"));
+        assertFalse(CardapioRespostaCache.aceitaGzip("gzip;q=0"));
+        assertFalse(CardapioRespostaCache.aceitaGzip("gzip; q=0.000, *;q=1"));
+        assertFalse(CardapioRespostaCache.aceitaGzip("*;q=0"));
+        assertFalse(CardapioRespostaCache.aceitaGzip("deflate, identity"));
+        assertFalse(CardapioRespostaCache.aceitaGzip("gzip;q=abc"));
+        assertFalse(CardapioRespostaCache.aceitaGzip(null));
+    }
+
+    @Test
+    void deveGerarVersaoCompactadaEquivalente() throws IOException {
+        // Given
+        when(menuService.obterSnapshotCardapio()).thenReturn(snapshot);
+
+        // When
+        CardapioSerializado cardapio = cardapioRespostaCache.obter();
+
+        // Then
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(cardapio.getJsonGzip()))) {
+            assertArrayEquals(cardapio.getJson(), gzip.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.cardapio.service;
+
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.Pedido;
+import com.cardapio.model.PedidoItem;
+import com.cardapio.model.PedidoStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A exportação confirma a própria transação de leitura; os dados são gravados e removidos explicitamente.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ExportadorPedidos.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportadorPedidosTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private ExportadorPedidos exportadorPedidos;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionTemplate transacao;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DELETE FROM pedido_itens");
+        jdbc.execute("DELETE FROM pedidos");
+        jdbc.execute("DELETE FROM itens_cardapio");
+    }
+
+    @Test
+    void deveExportarPedidosDoPeriodoEmCsv() throws IOException {
+        // Given
+        ItemCardapio item = persistirItem();
+        Long pedidoId = persistirPedido(item, "Mesa 1", "sem cebola, \"bem passado\"", INICIO.plusHours(1));
+        persistirPedido(item, "Mesa 2", null, INICIO.plusDays(1));
+
+        // When
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        long exportados = exportadorPedidos.exportar(INICIO, INICIO.plusDays(1), ExportadorPedidos.Formato.CSV, saida);
+
+        // Then
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, exportados);
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].startsWith("pedido_id,mesa,status"));
+        assertTrue(linhas[1].startsWith(pedidoId + ",Mesa 1,ENTREGUE,2024-01-01T01:00,"));
+        assertTrue(linhas[1].contains(",51.80,2,\"sem cebola, \"\"bem passado\"\"\","));
+        assertTrue(linhas[2].endsWith(",Hambúrguer,1,25.90,25.90,"));
+    }
+
+    @Test
+    void deveExportarUmPedidoComItensPorLinhaEmNdjson() throws IOException {
+        // Given
+        ItemCardapio item = persistirItem();
+        persistirPedido(item, "Mesa 1", null, INICIO.plusHours(1));
+        persistirPedido(item, "Mesa 2", null, INICIO.plusHours(2));
+
+        // When
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportadorPedidos.exportar(INICIO, INICIO.plusDays(1), ExportadorPedidos.Formato.NDJSON, saida);
+
+        // Then
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, linhas.size());
+        JsonNode primeiro = objectMapper.readTree(linhas.get(0));
+        assertEquals("Mesa 1", primeiro.get("mesa").asText());
+        assertEquals(2, primeiro.get("itens").size());
+        assertEquals("Hambúrguer", primeiro.get("itens").get(0).get("nomeItem").asText());
+        assertEquals("Mesa 2", objectMapper.readTree(linhas.get(1)).get("mesa").asText());
+    }
+
+    @Test
+    void deveRejeitarFormatoDesconhecido() {
+        assertThrows(IllegalArgumentException.class, () -> ExportadorPedidos.Formato.deParametro("xml"));
+        assertEquals(ExportadorPedidos.Formato.NDJSON, ExportadorPedidos.Formato.deParametro("ndjson"));
+    }
+
+    // Materializar 500 mil pedidos com itens exigiria centenas de MB; o cursor mantém o consumo estável
+    @Test
+    void deveExportarMeioMilhaoDePedidosComMemoriaConstante() throws IOException {
+        // Given
+        int quantidade = 500_000;
+        ItemCardapio item = persistirItem();
+        jdbc.execute("INSERT INTO pedidos (id, mesa, status, data_criacao, data_atualizacao, valor_total, quantidade_itens, versao) " +
+                "SELECT g.x, 'Mesa ' || MOD(g.x, 50), 'ENTREGUE', DATEADD('SECOND', g.x, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "DATEADD('SECOND', g.x, TIMESTAMP '2024-01-01 00:00:00'), 25.90, 1, 0 FROM SYSTEM_RANGE(1, " + quantidade + ") g(x)");
+        jdbc.execute("INSERT INTO pedido_itens (id, pedido_id, item_cardapio_id, quantidade, preco_unitario) " +
+                "SELECT g.x, g.x, " + item.getId() + ", 1, 25.90 FROM SYSTEM_RANGE(1, " + quantidade + ") g(x)");
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long usoInicial = memoria.getHeapMemoryUsage().getUsed();
+        MedidorSaida saida = new MedidorSaida(memoria, 100_000);
+
+        // When
+        long exportados = exportadorPedidos.exportar(INICIO, INICIO.plusYears(1), ExportadorPedidos.Formato.NDJSON, saida);
+
+        // Then
+        long crescimento = saida.maiorUso - usoInicial;
+        assertEquals(quantidade, exportados);
+        assertEquals(quantidade, saida.linhas);
+        assertTrue(crescimento < 64L * 1024 * 1024,
+                "Heap cresceu " + crescimento / (1024 * 1024) + " MB durante a exportação");
+    }
+
+    private ItemCardapio persistirItem() {
+        return transacao.execute(status -> {
+            ItemCardapio item = new ItemCardapio("Hambúrguer", "Delicioso hambúrguer", new BigDecimal("25.90"), null);
+            entityManager.persist(item);
+            return item;
+        });
+    }
+
+    private Long persistirPedido(ItemCardapio item, String mesa, String observacoes, LocalDateTime criadoEm) {
+        return transacao.execute(status -> {
+            Pedido pedido = new Pedido(mesa, observacoes);
+            pedido.setStatus(PedidoStatus.ENTREGUE);
+            pedido.setDataCriacao(criadoEm);
+            pedido.adicionarItem(new PedidoItem(entityManager.getReference(ItemCardapio.class, item.getId()), 1,
+                    item.getPreco()));
+            pedido.adicionarItem(new PedidoItem(entityManager.getReference(ItemCardapio.class, item.getId()), 1,
+                    item.getPreco()));
+            entityManager.persist(pedido);
+            return pedido.getId();
+        });
+    }
+
+    // Descarta o conteúdo, conta as linhas e mede o heap após coleta a cada tantas linhas
+    private static final class MedidorSaida extends OutputStream {
+
+        private final MemoryMXBean memoria;
+        private final int intervalo;
+        private long linhas;
+        private long maiorUso;
+
+        private MedidorSaida(MemoryMXBean memoria, int intervalo) {
+            this.memoria = memoria;
+            this.intervalo = intervalo;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++linhas % intervalo == 0) {
+                System.gc();
+                maiorUso = Math.max(maiorUso, memoria.getHeapMemoryUsage().getUsed());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.exception.RecursoNaoEncontradoException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaPedidosTest {
+
+    @Mock
+    private PedidoService pedidoService;
+
+    private IdempotenciaPedidos idempotenciaPedidos;
+    private PedidoDTO pedidoDTO;
+    private PedidoDTO pedidoCriado;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaPedidos = new IdempotenciaPedidos();
+        ReflectionTestUtils.setField(idempotenciaPedidos, "pedidoService", pedidoService);
+        ReflectionTestUtils.setField(idempotenciaPedidos, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(idempotenciaPedidos, "validade", 60000L);
+        ReflectionTestUtils.setField(idempotenciaPedidos, "tamanhoMaximo", 100);
+        ReflectionTestUtils.setField(idempotenciaPedidos, "esperaMaxima", 5000L);
+
+        pedidoDTO = new PedidoDTO("Mesa 5", List.of(new PedidoItemDTO(1L, 2, new BigDecimal("25.90"))), "Sem cebola");
+        pedidoCriado = new PedidoDTO("Mesa 5", pedidoDTO.getItens(), "Sem cebola");
+        pedidoCriado.setId(10L);
+    }
+
+    @Test
+    void deveDevolverOPedidoOriginalQuandoAChaveSeRepete() {
+        // Given
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(pedidoCriado);
+        when(pedidoService.buscarPorId(10L)).thenReturn(pedidoCriado);
+
+        // When
+        IdempotenciaPedidos.Resultado primeiro = idempotenciaPedidos.criar("chave-1", pedidoDTO);
+        IdempotenciaPedidos.Resultado repetido = idempotenciaPedidos.criar("chave-1", copia(pedidoDTO));
+
+        // Then
+        assertFalse(primeiro.isRepetido());
+        assertTrue(repetido.isRepetido());
+        assertEquals(10L, repetido.getPedido().getId());
+        verify(pedidoService, times(1)).criarPedido(any(PedidoDTO.class));
+        assertEquals(1L, idempotenciaPedidos.estatisticas().get("repetidos"));
+    }
+
+    @Test
+    void deveRejeitarMesmaChaveComOutroConteudo() {
+        // Given
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(pedidoCriado);
+        idempotenciaPedidos.criar("chave-1", pedidoDTO);
+        PedidoDTO outro = copia(pedidoDTO);
+        outro.setMesa("Mesa 6");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> idempotenciaPedidos.criar("chave-1", outro));
+        verify(pedidoService, times(1)).criarPedido(any(PedidoDTO.class));
+    }
+
+    @Test
+    void deveRejeitarChaveVaziaOuLongaDemais() {
+        assertThrows(IllegalArgumentException.class, () -> idempotenciaPedidos.criar(" ", pedidoDTO));
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaPedidos.criar("x".repeat(IdempotenciaPedidos.TAMANHO_MAXIMO_CHAVE + 1), pedidoDTO));
+        verifyNoInteractions(pedidoService);
+    }
+
+    @Test
+    void naoDeveRegistrarTentativaQueFalhou() {
+        // Given
+        when(pedidoService.criarPedido(any(PedidoDTO.class)))
+                .thenThrow(new RecursoNaoEncontradoException("Item não encontrado"))
+                .thenReturn(pedidoCriado);
+
+        // When
+        assertThrows(RecursoNaoEncontradoException.class, () -> idempotenciaPedidos.criar("chave-1", pedidoDTO));
+        IdempotenciaPedidos.Resultado segunda = idempotenciaPedidos.criar("chave-1", pedidoDTO);
+
+        // Then
+        assertFalse(segunda.isRepetido());
+        verify(pedidoService, times(2)).criarPedido(any(PedidoDTO.class));
+    }
+
+    @Test
+    void deveCriarUmaVezComRepeticoesSimultaneas() throws Exception {
+        // Given: a primeira requisição fica presa na criação enquanto as repetições chegam
+        CountDownLatch criando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenAnswer(invocacao -> {
+            criando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return pedidoCriado;
+        });
+        when(pedidoService.buscarPorId(10L)).thenReturn(pedidoCriado);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When
+        List<Future<IdempotenciaPedidos.Resultado>> resultados = new ArrayList<>();
+        resultados.add(executor.submit(() -> idempotenciaPedidos.criar("chave-1", pedidoDTO)));
+        assertTrue(criando.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            resultados.add(executor.submit(() -> idempotenciaPedidos.criar("chave-1", copia(pedidoDTO))));
+        }
+        liberar.countDown();
+
+        // Then
+        int repetidos = 0;
+        for (Future<IdempotenciaPedidos.Resultado> resultado : resultados) {
+            IdempotenciaPedidos.Resultado obtido = resultado.get(5, TimeUnit.SECONDS);
+            assertEquals(10L, obtido.getPedido().getId());
+            repetidos += obtido.isRepetido() ? 1 : 0;
+        }
+        executor.shutdown();
+        assertEquals(3, repetidos);
+        verify(pedidoService, times(1)).criarPedido(any(PedidoDTO.class));
+    }
+
+    @Test
+    void deveCriarDeNovoDepoisDaValidade() {
+        // Given
+        ReflectionTestUtils.setField(idempotenciaPedidos, "validade", 0L);
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(pedidoCriado);
+
+        // When
+        idempotenciaPedidos.criar("chave-1", pedidoDTO);
+        IdempotenciaPedidos.Resultado segunda = idempotenciaPedidos.criar("chave-1", pedidoDTO);
+
+        // Then
+        assertFalse(segunda.isRepetido());
+        verify(pedidoService, times(2)).criarPedido(any(PedidoDTO.class));
+    }
+
+    @Test
+    void deveRespeitarTamanhoMaximo() {
+        // Given
+        ReflectionTestUtils.setField(idempotenciaPedidos, "tamanhoMaximo", 2);
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(pedidoCriado);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            idempotenciaPedidos.criar("chave-" + i, pedidoDTO);
+        }
+
+        // Then
+        assertEquals(2L, idempotenciaPedidos.estatisticas().get("tamanho"));
+        assertEquals(5L, idempotenciaPedidos.estatisticas().get("criados"));
+        assertEquals(3L, idempotenciaPedidos.estatisticas().get("expulsoes"));
+    }
+
+    @Test
+    void deveDescartarAsChavesMaisAntigasPrimeiro() {
+        // Given
+        ReflectionTestUtils.setField(idempotenciaPedidos, "tamanhoMaximo", 2);
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenReturn(pedidoCriado);
+        when(pedidoService.buscarPorId(10L)).thenReturn(pedidoCriado);
+        for (int i = 0; i < 5; i++) {
+            idempotenciaPedidos.criar("chave-" + i, pedidoDTO);
+        }
+
+        // When: as duas chaves mais recentes continuam valendo
+        IdempotenciaPedidos.Resultado recente = idempotenciaPedidos.criar("chave-4", pedidoDTO);
+        IdempotenciaPedidos.Resultado anterior = idempotenciaPedidos.criar("chave-3", pedidoDTO);
+
+        // Then
+        assertTrue(recente.isRepetido());
+        assertTrue(anterior.isRepetido());
+        verify(pedidoService, times(5)).criarPedido(any(PedidoDTO.class));
+    }
+
+    @Test
+    void naoDeveDescartarChaveEmAndamento() throws Exception {
+        // Given: uma criação presa enquanto outras chaves lotam o registro
+        ReflectionTestUtils.setField(idempotenciaPedidos, "tamanhoMaximo", 1);
+        CountDownLatch criando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(pedidoService.criarPedido(any(PedidoDTO.class))).thenAnswer(invocacao -> {
+            if (Thread.currentThread().getName().startsWith("pool")) {
+                criando.countDown();
+                liberar.await(5, TimeUnit.SECONDS);
+            }
+            return pedidoCriado;
+        });
+        when(pedidoService.buscarPorId(10L)).thenReturn(pedidoCriado);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<IdempotenciaPedidos.Resultado> lenta = executor.submit(() -> idempotenciaPedidos.criar("lenta", pedidoDTO));
+        assertTrue(criando.await(5, TimeUnit.SECONDS));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            idempotenciaPedidos.criar("chave-" + i, pedidoDTO);
+        }
+        liberar.countDown();
+        lenta.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then: a repetição da chave que estava em andamento não cria outro pedido
+        assertTrue(idempotenciaPedidos.criar("lenta", pedidoDTO).isRepetido());
+        verify(pedidoService, times(4)).criarPedido(any(PedidoDTO.class));
+    }
+
+    private static PedidoDTO copia(PedidoDTO original) {
+        List<PedidoItemDTO> itens = original.getItens().stream()
+                .map(item -> new PedidoItemDTO(item.getItemId(), item.getQuantidade(), item.getPrecoUnitario()))
+                .toList();
+        return new PedidoDTO(original.getMesa(), itens, original.getObservacoes());
+    }
+}
@@ -1,6 +1,7 @@
 package com.cardapio.service;
 
 import com.cardapio.dto.ItemCardapioDTO;
+import com.cardapio.dto.ResumoCardapio;
 import com.cardapio.exception.RecursoNaoEncontradoException;
 import com.cardapio.mapper.ItemCardapioMapper;
 import com.cardapio.model.ItemCardapio;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal; // IMPORTANTE: Importar BigDecimal
 import java.util.Arrays;
@@ -66,6 +68,80 @@ class MenuServiceTest {
         verify(itemCardapioMapper).toDTO(itemCardapio);
     }
 
+    @Test
+    void deveServirCardapioAtivoDoSnapshotSemConsultarNovamente() {
+        // Given
+        when(itemCardapioRepository.findAllAtivosOrdenados()).thenReturn(Arrays.asList(itemCardapio));
+        when(itemCardapioMapper.toDTO(any(ItemCardapio.class))).thenReturn(itemCardapioDTO);
+
+        // When
+        List<ItemCardapioDTO> primeiraLeitura = menuService.listarCardapioAtivo();
+        List<ItemCardapioDTO> segundaLeitura = menuService.listarCardapioAtivo();
+
+        // Then
+        assertSame(primeiraLeitura, segundaLeitura);
+        verify(itemCardapioRepository, times(1)).findAllAtivosOrdenados();
+        verify(itemCardapioMapper, times(1)).toDTO(itemCardapio);
+    }
+
+    @Test
+    void deveReconstruirSnapshotAposAlteracaoNoCardapio() {
+        // Given
+        when(itemCardapioRepository.findAllAtivosOrdenados()).thenReturn(Arrays.asList(itemCardapio));
+        when(itemCardapioMapper.toDTO(any(ItemCardapio.class))).thenReturn(itemCardapioDTO);
+        when(itemCardapioRepository.findById(1L)).thenReturn(Optional.of(itemCardapio));
+        menuService.listarCardapioAtivo();
+        long versaoAnterior = menuService.getVersaoCardapio();
+
+        // When
+        menuService.removerItem(1L);
+        menuService.listarCardapioAtivo();
+
+        // Then
+        assertTrue(menuService.getVersaoCardapio() > versaoAnterior);
+        assertEquals(menuService.getVersaoCardapio(), menuService.obterSnapshotCardapio().getVersao());
+        verify(itemCardapioRepository, times(2)).findAllAtivosOrdenados();
+    }
+
+    @Test
+    void deveDescartarSnapshotQuandoOutraInstanciaAlterouOCardapio() throws InterruptedException {
+        // Given: outra instância mudou o preço do item, sem passar pelo afterCommit deste nó
+        ReflectionTestUtils.setField(menuService, "intervaloVerificacao", 1L);
+        when(itemCardapioRepository.findAllAtivosOrdenados()).thenReturn(Arrays.asList(itemCardapio));
+        when(itemCardapioMapper.toDTO(any(ItemCardapio.class))).thenReturn(itemCardapioDTO);
+        when(itemCardapioRepository.resumirAtivos()).thenReturn(new ResumoCardapio(1L, 1L, 1L));
+        long versaoAnterior = menuService.getVersaoCardapio();
+        menuService.listarCardapioAtivo();
+        Thread.sleep(5);
+
+        // When
+        long versaoAtual = menuService.getVersaoCardapio();
+        menuService.listarCardapioAtivo();
+
+        // Then
+        assertTrue(versaoAtual > versaoAnterior);
+        verify(itemCardapioRepository, times(2)).findAllAtivosOrdenados();
+    }
+
+    @Test
+    void deveManterSnapshotQuandoOResumoDoBancoConfere() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(menuService, "intervaloVerificacao", 1L);
+        when(itemCardapioRepository.findAllAtivosOrdenados()).thenReturn(Arrays.asList(itemCardapio));
+        when(itemCardapioMapper.toDTO(any(ItemCardapio.class))).thenReturn(itemCardapioDTO);
+        when(itemCardapioRepository.resumirAtivos()).thenReturn(new ResumoCardapio(1L, 0L, 1L));
+        List<ItemCardapioDTO> primeiraLeitura = menuService.listarCardapioAtivo();
+        Thread.sleep(5);
+
+        // When
+        List<ItemCardapioDTO> segundaLeitura = menuService.listarCardapioAtivo();
+
+        // Then
+        assertSame(primeiraLeitura, segundaLeitura);
+        verify(itemCardapioRepository).resumirAtivos();
+        verify(itemCardapioRepository, times(1)).findAllAtivosOrdenados();
+    }
+
     @Test
     void deveBuscarItemPorId() {
         // Given
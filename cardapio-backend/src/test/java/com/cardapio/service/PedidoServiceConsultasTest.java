@@ -0,0 +1,409 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.JanelaPedidosDTO;
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.cardapio.dto.ResultadoStatusPedidoDTO;
+import com.cardapio.dto.ResumoPedidosAtivos;
+import com.cardapio.dto.StatusLoteRequest;
+import com.cardapio.dto.StatusUpdateRequest;
+import com.cardapio.mapper.PedidoMapper;
+import com.cardapio.mapper.PedidoMapperImpl;
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.Pedido;
+import com.cardapio.model.PedidoItem;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.repository.PedidoRepository;
+import com.cardapio.sse.SseBroadcaster;
+import com.cardapio.support.ContadorIdasAoBanco;
+import com.cardapio.support.ContadorSql;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração que verificam a quantidade de instruções SQL emitidas
+ * pelo PedidoService contra um banco H2 em memória.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PedidoService.class, PedidoMapperImpl.class, ContadorIdasAoBanco.class})
+class PedidoServiceConsultasTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoMapper pedidoMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @MockBean
+    private SseBroadcaster sseBroadcaster;
+
+    @MockBean
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+
+    private final List<ItemCardapio> itensCardapio = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 15; i++) {
+            ItemCardapio item = new ItemCardapio("Item " + i, "Descrição " + i, new BigDecimal("10.00"), null);
+            entityManager.persist(item);
+            itensCardapio.add(item);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void deveBuscarItensDoCardapioComNumeroConstanteDeConsultas() {
+        int selectsPedidoPequeno = contarSelectsAoCriarPedido(1);
+        int selectsPedidoGrande = contarSelectsAoCriarPedido(15);
+
+        assertEquals(1, selectsPedidoPequeno);
+        assertEquals(selectsPedidoPequeno, selectsPedidoGrande);
+    }
+
+    // Com IDs de sequência em blocos e INSERTs em lote, o número de idas ao banco não cresce com as linhas:
+    // busca dos itens + sequências (quando o bloco acaba) + um lote para o pedido + um lote para as linhas
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void deveInserirPedidoEmLotesIndependentementeDaQuantidadeDeLinhas(int quantidadeDeLinhas) {
+        // Given
+        List<PedidoItemDTO> linhas = new ArrayList<>();
+        for (int i = 0; i < quantidadeDeLinhas; i++) {
+            linhas.add(new PedidoItemDTO(itensCardapio.get(i % itensCardapio.size()).getId(), 1, new BigDecimal("10.00")));
+        }
+        pedidoService.criarPedido(new PedidoDTO("Mesa 1", new ArrayList<>(linhas.subList(0, 1)), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        ContadorIdasAoBanco.limpar();
+        ContadorSql.limpar();
+        pedidoService.criarPedido(new PedidoDTO("Mesa 2", linhas, null));
+        entityManager.flush();
+
+        // Then
+        assertEquals(2, ContadorSql.inserts());
+        assertTrue(ContadorIdasAoBanco.total() <= 5,
+                quantidadeDeLinhas + " linhas exigiram " + ContadorIdasAoBanco.total() + " idas ao banco");
+    }
+
+    @Test
+    void deveGravarTotaisDoPedidoAoCriar() {
+        // Given
+        List<PedidoItemDTO> linhas = List.of(
+                new PedidoItemDTO(itensCardapio.get(0).getId(), 2, new BigDecimal("10.00")),
+                new PedidoItemDTO(itensCardapio.get(1).getId(), 3, new BigDecimal("10.00")));
+
+        // When
+        PedidoDTO criado = pedidoService.criarPedido(new PedidoDTO("Mesa 1", new ArrayList<>(linhas), null));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        Pedido gravado = entityManager.find(Pedido.class, criado.getId());
+        assertEquals(0, new BigDecimal("50.00").compareTo(gravado.getValorTotal()));
+        assertEquals(5, gravado.getQuantidadeItens());
+        assertTrue(pedidoService.auditarTotais().isEmpty());
+    }
+
+    @Test
+    void deveApontarPedidosComTotaisDivergentes() {
+        // Given
+        persistirPedidos(3, 2, PedidoStatus.ENTREGUE);
+        Long corrompido = entityManager.createQuery("SELECT MIN(p.id) FROM Pedido p", Long.class).getSingleResult();
+        entityManager.createQuery("UPDATE Pedido p SET p.valorTotal = 1 WHERE p.id = :id")
+                .setParameter("id", corrompido)
+                .executeUpdate();
+
+        // When
+        List<Long> divergentes = pedidoService.auditarTotais();
+
+        // Then
+        assertEquals(List.of(corrompido), divergentes);
+    }
+
+    @Test
+    void deveResumirPedidosAtivosComUmaConsultaIgualAoQuadroEmMemoria() {
+        // Given
+        persistirPedidos(4, 2, PedidoStatus.RECEBIDO);
+        persistirPedidos(3, 1, PedidoStatus.ENTREGUE);
+
+        // When
+        ContadorSql.limpar();
+        ResumoPedidosAtivos noBanco = pedidoRepository.resumirPorStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS);
+
+        // Then
+        assertEquals(1, ContadorSql.selects());
+        assertEquals(4, noBanco.getQuantidade());
+        List<PedidoDTO> quadro = PedidoLinhaQuadro.agruparPorPedido(
+                pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS));
+        assertEquals(ResumoPedidosAtivos.de(quadro), noBanco);
+        assertEquals(ResumoPedidosAtivos.de(List.of()), pedidoRepository.resumirPorStatusIn(List.of(PedidoStatus.PRONTO)));
+    }
+
+    @Test
+    void deveCarregarQuadroDaCozinhaComUmaUnicaConsulta() {
+        // Given
+        persistirPedidos(20, 5, PedidoStatus.RECEBIDO);
+        persistirPedidos(10, 3, PedidoStatus.EM_PREPARO);
+
+        // When
+        ContadorSql.limpar();
+        List<PedidoDTO> quadro = pedidoService.listarPedidosPorStatusIn(
+                List.of(PedidoStatus.RECEBIDO, PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO));
+
+        // Then
+        assertEquals(1, ContadorSql.selects());
+        assertEquals(30, quadro.size());
+        assertEquals(5, quadro.get(0).getItens().size());
+        assertNotNull(quadro.get(0).getItens().get(0).getNomeItem());
+    }
+
+    @Test
+    void deveAlocarMenosMemoriaNoQuadroPorProjecaoDoQueComEntidades() {
+        // Given
+        persistirPedidos(200, 5, PedidoStatus.RECEBIDO);
+        List<PedidoStatus> statuses = List.of(PedidoStatus.RECEBIDO, PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO);
+
+        // When
+        long bytesComEntidades = medirAlocacao(() -> entityManager.createQuery(
+                        "SELECT DISTINCT p FROM Pedido p JOIN FETCH p.itens pi JOIN FETCH pi.item " +
+                        "WHERE p.status IN :statuses ORDER BY p.dataCriacao", Pedido.class)
+                .setParameter("statuses", statuses)
+                .getResultList().stream()
+                .map(pedidoMapper::toDTO)
+                .collect(Collectors.toList()));
+        long bytesComProjecao = medirAlocacao(() -> pedidoService.listarPedidosPorStatusIn(statuses));
+
+        // Then
+        assertTrue(bytesComProjecao < bytesComEntidades,
+                "Projeção alocou " + bytesComProjecao + " bytes; entidades alocaram " + bytesComEntidades);
+    }
+
+    @Test
+    void devePaginarPedidosComNumeroConstanteDeConsultas() {
+        // Given
+        persistirPedidos(25, 4, PedidoStatus.ENTREGUE);
+
+        // When
+        ContadorSql.limpar();
+        Page<PedidoDTO> pagina = pedidoService.listarPedidosPaginados(
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        // Then
+        // IDs da página, contagem total e pedidos com itens
+        assertEquals(3, ContadorSql.selects());
+        assertEquals(25, pagina.getTotalElements());
+        assertEquals(10, pagina.getContent().size());
+        assertTrue(pagina.getContent().get(0).getId() > pagina.getContent().get(9).getId());
+        pagina.getContent().forEach(pedido -> assertEquals(4, pedido.getItens().size()));
+    }
+
+    @Test
+    void deveNavegarPorCursorSemRepetirNemPularPedidos() {
+        // Given: criações no mesmo instante obrigam o desempate pelo ID
+        LocalDateTime instante = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 25; i++) {
+            persistirPedido(instante.plusMinutes(i / 5));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<Long> vistos = new ArrayList<>();
+        List<Integer> selectsPorPagina = new ArrayList<>();
+        String cursor = null;
+        do {
+            ContadorSql.limpar();
+            JanelaPedidosDTO janela = pedidoService.listarPedidosPorCursor(null, null, cursor, 10, false);
+            selectsPorPagina.add(ContadorSql.selects());
+            janela.getPedidos().forEach(pedido -> vistos.add(pedido.getId()));
+            assertNull(janela.getTotal());
+            cursor = janela.getProximo();
+        } while (cursor != null);
+
+        // Then
+        // IDs da janela e pedidos com itens; nenhuma contagem
+        assertEquals(List.of(2, 2, 2), selectsPorPagina);
+        assertEquals(25, vistos.size());
+        assertEquals(25, vistos.stream().distinct().count());
+        List<Long> esperados = entityManager.createQuery(
+                "SELECT p.id FROM Pedido p ORDER BY p.dataCriacao DESC, p.id DESC", Long.class).getResultList();
+        assertEquals(esperados, vistos);
+    }
+
+    @Test
+    void deveManterPaginasEstaveisComPedidosCriadosDuranteANavegacao() {
+        // Given
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (int i = 0; i < 6; i++) {
+            persistirPedido(inicio.plusMinutes(i));
+        }
+        JanelaPedidosDTO primeira = pedidoService.listarPedidosPorCursor(
+                inicio, inicio.plusHours(1), null, 3, true);
+        persistirPedido(inicio.plusMinutes(30));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        JanelaPedidosDTO segunda = pedidoService.listarPedidosPorCursor(
+                inicio, inicio.plusHours(1), primeira.getProximo(), 3, false);
+
+        // Then
+        assertEquals(6, primeira.getTotal());
+        assertEquals(List.of(inicio.plusMinutes(2), inicio.plusMinutes(1), inicio),
+                segunda.getPedidos().stream().map(PedidoDTO::getDataCriacao).collect(Collectors.toList()));
+        assertNull(segunda.getProximo());
+    }
+
+    @Test
+    void deveRejeitarTokenDeContinuacaoInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> pedidoService.listarPedidosPorCursor(null, null, "nao-e-um-token", 10, false));
+    }
+
+    @Test
+    void deveRetornarPaginaVaziaSemConsultarPedidos() {
+        // When
+        ContadorSql.limpar();
+        Page<PedidoDTO> pagina = pedidoService.listarPedidosPorPeriodo(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now(), PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, ContadorSql.selects());
+        assertTrue(pagina.isEmpty());
+    }
+
+    @Test
+    void deveMudarStatusComUmUnicoUpdateCondicional() {
+        // Given
+        persistirPedidos(1, 3, PedidoStatus.EM_PREPARO);
+        Long id = entityManager.createQuery("SELECT p.id FROM Pedido p", Long.class).getSingleResult();
+
+        // When
+        ContadorSql.limpar();
+        PedidoDTO pronto = pedidoService.atualizarStatusPedido(id,
+                new StatusUpdateRequest(PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO));
+
+        // Then: nenhum SELECT antes do UPDATE; a única consulta devolve o pedido já atualizado, com os itens
+        assertEquals(1, ContadorSql.updates());
+        assertEquals(1, ContadorSql.selects());
+        assertTrue(ContadorSql.instrucoes().get(0).toLowerCase().startsWith("update"));
+        assertEquals(PedidoStatus.PRONTO, pronto.getStatus());
+        assertEquals(1L, pronto.getVersao());
+        assertEquals(3, pronto.getItens().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 20})
+    void deveMudarStatusDeUmLoteComNumeroConstanteDeInstrucoes(int quantidade) {
+        // Given
+        persistirPedidos(quantidade, 3, PedidoStatus.EM_PREPARO);
+        persistirPedidos(1, 1, PedidoStatus.RECEBIDO);
+        List<Long> ids = new ArrayList<>(entityManager.createQuery(
+                "SELECT p.id FROM Pedido p ORDER BY p.id", Long.class).getResultList());
+        Long recebido = ids.get(ids.size() - 1);
+        ids.add(-1L);
+
+        // When
+        ContadorSql.limpar();
+        List<ResultadoStatusPedidoDTO> resultados = pedidoService.atualizarStatusEmLote(
+                new StatusLoteRequest(ids, PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO));
+
+        // Then: trava do lote, um UPDATE e os pedidos alterados com os itens, qualquer que seja o tamanho
+        assertEquals(1, ContadorSql.updates());
+        assertEquals(2, ContadorSql.selects());
+        assertEquals(ids, resultados.stream().map(ResultadoStatusPedidoDTO::getId).collect(Collectors.toList()));
+        assertEquals(quantidade, resultados.stream().filter(ResultadoStatusPedidoDTO::isSucesso).count());
+        assertEquals(PedidoStatus.PRONTO, resultados.get(0).getPedido().getStatus());
+        assertEquals(3, resultados.get(0).getPedido().getItens().size());
+        assertFalse(resultados.get(quantidade).isSucesso());
+        assertEquals(recebido, resultados.get(quantidade).getId());
+        assertFalse(resultados.get(quantidade + 1).isSucesso());
+    }
+
+    // Bytes alocados pela thread atual por execução (mediana de 5, após aquecimento)
+    private long medirAlocacao(Supplier<List<PedidoDTO>> quadro) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        List<Long> medicoes = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            entityManager.clear();
+            long antes = threads.getThreadAllocatedBytes(threadId);
+            assertEquals(200, quadro.get().size());
+            long depois = threads.getThreadAllocatedBytes(threadId);
+            if (i >= 10) {
+                medicoes.add(depois - antes);
+            }
+        }
+        medicoes.sort(null);
+        return medicoes.get(medicoes.size() / 2);
+    }
+
+    private void persistirPedidos(int quantidade, int linhasPorPedido, PedidoStatus status) {
+        for (int i = 0; i < quantidade; i++) {
+            Pedido pedido = new Pedido("Mesa " + i, null);
+            pedido.setStatus(status);
+            for (int j = 0; j < linhasPorPedido; j++) {
+                pedido.adicionarItem(new PedidoItem(itensCardapio.get(j), 1, new BigDecimal("10.00")));
+            }
+            entityManager.persist(pedido);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persistirPedido(LocalDateTime criadoEm) {
+        Pedido pedido = new Pedido("Mesa 1", null);
+        pedido.setDataCriacao(criadoEm);
+        pedido.adicionarItem(new PedidoItem(itensCardapio.get(0), 1, new BigDecimal("10.00")));
+        entityManager.persist(pedido);
+    }
+
+    private int contarSelectsAoCriarPedido(int quantidadeDeLinhas) {
+        List<PedidoItemDTO> linhas = new ArrayList<>();
+        for (int i = 0; i < quantidadeDeLinhas; i++) {
+            linhas.add(new PedidoItemDTO(itensCardapio.get(i).getId(), 1, new BigDecimal("10.00")));
+        }
+        PedidoDTO pedidoDTO = new PedidoDTO("Mesa 1", linhas, null);
+
+        ContadorSql.limpar();
+        PedidoDTO criado = pedidoService.criarPedido(pedidoDTO);
+        entityManager.flush();
+        int selects = ContadorSql.selects();
+
+        assertEquals(quantidadeDeLinhas, criado.getItens().size());
+        entityManager.clear();
+        return selects;
+    }
+}
@@ -2,18 +2,24 @@ package com.cardapio.service;
 
 import com.cardapio.dto.PedidoDTO;
 import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
 import com.cardapio.dto.StatusUpdateRequest;
+import com.cardapio.evento.PedidoCriadoEvento;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.exception.ConflitoException;
 import com.cardapio.exception.RecursoNaoEncontradoException;
 import com.cardapio.mapper.PedidoMapper;
 import com.cardapio.model.*;
 import com.cardapio.repository.ItemCardapioRepository;
 import com.cardapio.repository.PedidoRepository;
+import com.cardapio.sse.SseBroadcaster;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal; // IMPORTANTE: Importar BigDecimal
 import java.time.LocalDateTime;
@@ -21,10 +27,14 @@ import java.util.Arrays;
 import java.util.Collections; // Usar para lista vazia
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +49,15 @@ class PedidoServiceTest {
     @Mock
     private PedidoMapper pedidoMapper;
 
+    @Mock
+    private SseBroadcaster sseBroadcaster;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+
     @InjectMocks
     private PedidoService pedidoService;
 
@@ -68,7 +87,7 @@ class PedidoServiceTest {
     @Test
     void deveCriarPedido() {
         // Given
-        when(itemCardapioRepository.findById(1L)).thenReturn(Optional.of(itemCardapio));
+        when(itemCardapioRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(itemCardapio));
         when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
         when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoDTO);
 
@@ -80,22 +99,23 @@ class PedidoServiceTest {
         assertEquals("Mesa 5", resultado.getMesa());
         assertEquals("Sem cebola", resultado.getObservacoes());
 
-        verify(itemCardapioRepository).findById(1L);
+        verify(itemCardapioRepository).findAllById(Set.of(1L));
         verify(pedidoRepository).save(any(Pedido.class));
         verify(pedidoMapper).toDTO(any(Pedido.class));
+        verify(eventPublisher).publishEvent(any(PedidoCriadoEvento.class));
     }
 
     @Test
     void deveLancarExcecaoQuandoItemNaoEncontrado() {
         // Given
-        when(itemCardapioRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemCardapioRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
 
         // When & Then
         assertThrows(RecursoNaoEncontradoException.class, () -> {
             pedidoService.criarPedido(pedidoDTO);
         });
 
-        verify(itemCardapioRepository).findById(1L);
+        verify(itemCardapioRepository).findAllById(Set.of(1L));
         verifyNoInteractions(pedidoRepository);
     }
 
@@ -103,14 +123,35 @@ class PedidoServiceTest {
     void deveLancarExcecaoQuandoItemInativo() {
         // Given
         itemCardapio.setAtivo(false);
-        when(itemCardapioRepository.findById(1L)).thenReturn(Optional.of(itemCardapio));
+        when(itemCardapioRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(itemCardapio));
 
         // When & Then
         assertThrows(IllegalArgumentException.class, () -> {
             pedidoService.criarPedido(pedidoDTO);
         });
 
-        verify(itemCardapioRepository).findById(1L);
+        verify(itemCardapioRepository).findAllById(Set.of(1L));
+        verifyNoInteractions(pedidoRepository);
+    }
+
+    @Test
+    void deveReportarTodosItensNaoEncontradosEmUmUnicoErro() {
+        // Given
+        PedidoItemDTO outroItem = new PedidoItemDTO(2L, 1, new BigDecimal("12.50"));
+        PedidoItemDTO maisUmItem = new PedidoItemDTO(3L, 1, new BigDecimal("5.00"));
+        PedidoDTO pedidoComVariosItens = new PedidoDTO("Mesa 5",
+                Arrays.asList(pedidoItemDTO, outroItem, maisUmItem), null);
+        when(itemCardapioRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(itemCardapio));
+
+        // When
+        RecursoNaoEncontradoException excecao = assertThrows(RecursoNaoEncontradoException.class, () -> {
+            pedidoService.criarPedido(pedidoComVariosItens);
+        });
+
+        // Then
+        assertTrue(excecao.getMessage().contains("[2, 3]"));
+        verify(itemCardapioRepository).findAllById(Set.of(1L, 2L, 3L));
+        verify(itemCardapioRepository, never()).findById(anyLong());
         verifyNoInteractions(pedidoRepository);
     }
 
@@ -149,28 +190,105 @@ class PedidoServiceTest {
     void deveAtualizarStatusPedido() {
         // Given
         StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.EM_PREPARO);
-        when(pedidoRepository.findById(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoRepository.save(any(Pedido.class))).thenReturn(pedido);
-        when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoDTO);
+        when(pedidoRepository.findStatusById(1L)).thenReturn(Optional.of(PedidoStatus.RECEBIDO));
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(PedidoStatus.RECEBIDO), eq(PedidoStatus.EM_PREPARO),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(pedidoRepository.findComItensByIdIn(List.of(1L))).thenReturn(List.of(pedido));
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoDTO);
 
         // When
         PedidoDTO resultado = pedidoService.atualizarStatusPedido(1L, statusRequest);
 
         // Then
         assertNotNull(resultado);
-        assertEquals(PedidoStatus.EM_PREPARO, pedido.getStatus());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(eventPublisher).publishEvent(any(StatusPedidoAlteradoEvento.class));
+    }
 
-        verify(pedidoRepository).findById(1L);
-        verify(pedidoRepository).save(pedido);
-        verify(pedidoMapper).toDTO(pedido);
+    @Test
+    void deveAtualizarStatusSemConsultaPreviaQuandoClienteInformaStatusAtual() {
+        // Given
+        StatusUpdateRequest statusRequest = new StatusUpdateRequest(PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO);
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(PedidoStatus.EM_PREPARO), eq(PedidoStatus.PRONTO),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(pedidoRepository.findComItensByIdIn(List.of(1L))).thenReturn(List.of(pedido));
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoDTO);
+
+        // When
+        pedidoService.atualizarStatusPedido(1L, statusRequest);
+
+        // Then
+        verify(pedidoRepository, never()).findStatusById(anyLong());
+        verify(eventPublisher).publishEvent(argThat((StatusPedidoAlteradoEvento evento) ->
+                evento.getStatusAnterior() == PedidoStatus.EM_PREPARO));
+    }
+
+    @Test
+    void deveRejeitarTransicaoInvalida() {
+        // Given
+        when(pedidoRepository.findStatusById(1L)).thenReturn(Optional.of(PedidoStatus.ENTREGUE));
+
+        // When & Then
+        assertThrows(ConflitoException.class, () ->
+                pedidoService.atualizarStatusPedido(1L, new StatusUpdateRequest(PedidoStatus.RECEBIDO)));
+        assertThrows(ConflitoException.class, () -> pedidoService.atualizarStatusPedido(1L,
+                new StatusUpdateRequest(PedidoStatus.ENTREGUE, PedidoStatus.RECEBIDO)));
+
+        verify(pedidoRepository, never()).atualizarStatus(anyLong(), any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void naoDevePublicarDeNovoQuandoOutraRequisicaoJaFezAMesmaTransicao() {
+        // Given: a requisição concorrente venceu a troca condicional
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(PedidoStatus.PRONTO), eq(PedidoStatus.ENTREGUE),
+                any(LocalDateTime.class))).thenReturn(0);
+        when(pedidoRepository.findStatusById(1L)).thenReturn(Optional.of(PedidoStatus.ENTREGUE));
+        when(pedidoRepository.findComItensByIdIn(List.of(1L))).thenReturn(List.of(pedido));
+        when(pedidoMapper.toDTO(pedido)).thenReturn(pedidoDTO);
+
+        // When
+        PedidoDTO resultado = pedidoService.atualizarStatusPedido(1L,
+                new StatusUpdateRequest(PedidoStatus.ENTREGUE, PedidoStatus.PRONTO));
+
+        // Then
+        assertNotNull(resultado);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deveLancarConflitoQuandoStatusEsperadoNaoConfere() {
+        // Given
+        when(pedidoRepository.atualizarStatus(eq(1L), eq(PedidoStatus.PRONTO), eq(PedidoStatus.ENTREGUE),
+                any(LocalDateTime.class))).thenReturn(0);
+        when(pedidoRepository.findStatusById(1L)).thenReturn(Optional.of(PedidoStatus.EM_PREPARO));
+
+        // When & Then
+        assertThrows(ConflitoException.class, () -> pedidoService.atualizarStatusPedido(1L,
+                new StatusUpdateRequest(PedidoStatus.ENTREGUE, PedidoStatus.PRONTO)));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void devePermitirApenasTransicoesDaTabela() {
+        assertTrue(PedidoStatus.RECEBIDO.podeMudarPara(PedidoStatus.EM_PREPARO));
+        assertTrue(PedidoStatus.PRONTO.podeMudarPara(PedidoStatus.ENTREGUE));
+        assertTrue(PedidoStatus.ENTREGUE.podeMudarPara(PedidoStatus.PRONTO));
+        assertFalse(PedidoStatus.RECEBIDO.podeMudarPara(PedidoStatus.ENTREGUE));
+        assertFalse(PedidoStatus.ENTREGUE.podeMudarPara(PedidoStatus.RECEBIDO));
+        assertFalse(PedidoStatus.PRONTO.podeMudarPara(PedidoStatus.PRONTO));
     }
 
     @Test
     void deveListarPedidosPorStatus() {
         // Given
-        List<Pedido> pedidos = Arrays.asList(pedido);
-        when(pedidoRepository.findByStatusOrderByDataCriacaoAsc(PedidoStatus.RECEBIDO)).thenReturn(pedidos);
-        when(pedidoMapper.toDTO(any(Pedido.class))).thenReturn(pedidoDTO);
+        LocalDateTime criadoEm = LocalDateTime.now();
+        List<PedidoLinhaQuadro> linhas = Arrays.asList(
+                new PedidoLinhaQuadro(1L, "Mesa 5", PedidoStatus.RECEBIDO, criadoEm, criadoEm, null,
+                        new BigDecimal("57.80"), 3, 0L, 10L, 1L, "Hambúrguer", 2, new BigDecimal("25.90"), null),
+                new PedidoLinhaQuadro(1L, "Mesa 5", PedidoStatus.RECEBIDO, criadoEm, criadoEm, null,
+                        new BigDecimal("57.80"), 3, 0L, 11L, 2L, "Refrigerante", 1, new BigDecimal("6.00"), "Sem gelo"));
+        when(pedidoRepository.findLinhasQuadroByStatusIn(List.of(PedidoStatus.RECEBIDO))).thenReturn(linhas);
 
         // When
         List<PedidoDTO> resultado = pedidoService.listarPedidosPorStatus(PedidoStatus.RECEBIDO);
@@ -179,9 +297,28 @@ class PedidoServiceTest {
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals("Mesa 5", resultado.get(0).getMesa());
+        assertEquals(2, resultado.get(0).getItens().size());
+        assertEquals("Refrigerante", resultado.get(0).getItens().get(1).getNomeItem());
+        assertEquals(new BigDecimal("57.80"), resultado.get(0).getValorTotal());
+        assertEquals(3, resultado.get(0).getQuantidadeItens());
 
-        verify(pedidoRepository).findByStatusOrderByDataCriacaoAsc(PedidoStatus.RECEBIDO);
-        verify(pedidoMapper).toDTO(pedido);
+        verify(pedidoRepository).findLinhasQuadroByStatusIn(List.of(PedidoStatus.RECEBIDO));
+        verifyNoInteractions(pedidoMapper);
+    }
+
+    @Test
+    void deveListarPedidosAtivosPeloQuadroSemConsultarBanco() {
+        // Given
+        List<PedidoStatus> statuses = List.of(PedidoStatus.RECEBIDO, PedidoStatus.EM_PREPARO);
+        when(quadroPedidosAtivos.atende(statuses)).thenReturn(true);
+        when(quadroPedidosAtivos.listarPorStatus(statuses)).thenReturn(List.of(pedidoDTO));
+
+        // When
+        List<PedidoDTO> resultado = pedidoService.listarPedidosPorStatusIn(statuses);
+
+        // Then
+        assertEquals(1, resultado.size());
+        verifyNoInteractions(pedidoRepository);
     }
 
     @Test
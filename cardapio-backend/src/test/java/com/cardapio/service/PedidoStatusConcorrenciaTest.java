@@ -0,0 +1,142 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.StatusUpdateRequest;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.exception.ConflitoException;
+import com.cardapio.mapper.PedidoMapperImpl;
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.Pedido;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.repository.ItemCardapioRepository;
+import com.cardapio.repository.PedidoRepository;
+import com.cardapio.sse.SseBroadcaster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Várias threads disputam as transições de um mesmo pedido, cada chamada em sua própria transação no H2:
+ * cada transição deve ser gravada e notificada uma única vez, sem atualizações perdidas.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PedidoService.class, PedidoMapperImpl.class, PedidoStatusConcorrenciaTest.TransicoesConfirmadas.class})
+class PedidoStatusConcorrenciaTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ItemCardapioRepository itemCardapioRepository;
+
+    @Autowired
+    private TransicoesConfirmadas transicoesConfirmadas;
+
+    @MockBean
+    private SseBroadcaster sseBroadcaster;
+
+    @MockBean
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepository.deleteAll();
+        itemCardapioRepository.deleteAll();
+    }
+
+    @Test
+    void deveAplicarCadaTransicaoUmaVezSobDisputa() throws Exception {
+        // Given
+        ItemCardapio item = itemCardapioRepository.save(
+                new ItemCardapio("Hambúrguer", "Delicioso hambúrguer", new BigDecimal("25.90"), null));
+        Long id = pedidoService.criarPedido(new PedidoDTO("Mesa 1",
+                List.of(new PedidoItemDTO(item.getId(), 1, item.getPreco())), null)).getId();
+        // Cozinha e garçom tocando os botões ao mesmo tempo, com e sem o status atual na requisição
+        List<StatusUpdateRequest> toques = List.of(
+                new StatusUpdateRequest(PedidoStatus.EM_PREPARO, PedidoStatus.RECEBIDO),
+                new StatusUpdateRequest(PedidoStatus.PRONTO, PedidoStatus.EM_PREPARO),
+                new StatusUpdateRequest(PedidoStatus.PRONTO),
+                new StatusUpdateRequest(PedidoStatus.ENTREGUE, PedidoStatus.PRONTO),
+                new StatusUpdateRequest(PedidoStatus.ENTREGUE));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+
+        // When: cada thread repete os toques, começando por um diferente, até ver o pedido entregue
+        List<Future<?>> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int primeiro = t;
+            threads.add(executor.submit(() -> {
+                largada.await();
+                for (int i = primeiro; ; i++) {
+                    try {
+                        PedidoDTO pedido = pedidoService.atualizarStatusPedido(id, toques.get(i % toques.size()));
+                        if (pedido.getStatus() == PedidoStatus.ENTREGUE) {
+                            return null;
+                        }
+                    } catch (ConflitoException e) {
+                        // Outra tela chegou antes: tenta o próximo toque
+                    }
+                }
+            }));
+        }
+        largada.countDown();
+        for (Future<?> thread : threads) {
+            thread.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        Pedido entregue = pedidoRepository.findById(id).orElseThrow();
+        assertEquals(PedidoStatus.ENTREGUE, entregue.getStatus());
+        assertEquals(3L, entregue.getVersao());
+        assertEquals(List.of("RECEBIDO>EM_PREPARO", "EM_PREPARO>PRONTO", "PRONTO>ENTREGUE"),
+                transicoesConfirmadas.listar());
+    }
+
+    // Registra as transições que chegaram ao commit, por versão: ouvintes de threads diferentes
+    // podem rodar fora da ordem dos commits
+    static class TransicoesConfirmadas {
+
+        private final Map<Long, String> transicoes = new ConcurrentSkipListMap<>();
+
+        @TransactionalEventListener
+        public void aoAlterarStatus(StatusPedidoAlteradoEvento evento) {
+            String transicao = evento.getStatusAnterior() + ">" + evento.getStatusNovo();
+            if (transicoes.putIfAbsent(evento.getPedido().getVersao(), transicao) != null) {
+                transicoes.put(-evento.getPedido().getVersao(), "duplicada: " + transicao);
+            }
+        }
+
+        List<String> listar() {
+            return List.copyOf(transicoes.values());
+        }
+    }
+}
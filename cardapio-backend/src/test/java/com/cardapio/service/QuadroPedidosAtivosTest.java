@@ -0,0 +1,262 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoLinhaQuadro;
+import com.cardapio.dto.ResumoPedidosAtivos;
+import com.cardapio.evento.PedidoCriadoEvento;
+import com.cardapio.evento.StatusPedidoAlteradoEvento;
+import com.cardapio.evento.StatusPedidosAlteradosEvento;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.repository.PedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuadroPedidosAtivosTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @InjectMocks
+    private QuadroPedidosAtivos quadro;
+
+    @BeforeEach
+    void setUp() {
+        when(pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS)).thenReturn(List.of(
+                linha(1L, "Mesa 1", PedidoStatus.RECEBIDO, 0),
+                linha(2L, "Mesa 2", PedidoStatus.EM_PREPARO, 1),
+                linha(3L, "Mesa 1", PedidoStatus.PRONTO, 2)));
+        quadro.reconstruir();
+    }
+
+    @Test
+    void deveCarregarPedidosAtivosPorStatusEMesa() {
+        // When
+        List<PedidoDTO> cozinha = quadro.listarPorStatus(QuadroPedidosAtivos.STATUS_ATIVOS);
+        List<PedidoDTO> mesa = quadro.listarPorMesa("Mesa 1");
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), ids(cozinha));
+        assertEquals(List.of(3L, 1L), ids(mesa));
+        assertEquals(List.of(2L), ids(quadro.listarPorStatus(List.of(PedidoStatus.EM_PREPARO))));
+        assertTrue(quadro.atende(List.of(PedidoStatus.PRONTO)));
+        assertFalse(quadro.atende(List.of(PedidoStatus.ENTREGUE)));
+    }
+
+    @Test
+    void deveAplicarCriacaoEMudancasDeStatus() {
+        // When
+        quadro.aoCriarPedido(new PedidoCriadoEvento(pedido(4L, "Mesa 3", PedidoStatus.RECEBIDO, 3, 3)));
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(1L, "Mesa 1", PedidoStatus.EM_PREPARO, 0, 5), PedidoStatus.RECEBIDO));
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(3L, "Mesa 1", PedidoStatus.ENTREGUE, 2, 5), PedidoStatus.PRONTO));
+
+        // Then
+        assertEquals(List.of(4L), ids(quadro.listarPorStatus(List.of(PedidoStatus.RECEBIDO))));
+        assertEquals(List.of(1L, 2L), ids(quadro.listarPorStatus(List.of(PedidoStatus.EM_PREPARO))));
+        assertTrue(quadro.listarPorStatus(List.of(PedidoStatus.PRONTO)).isEmpty());
+        assertEquals(List.of(1L), ids(quadro.listarPorMesa("Mesa 1")));
+        assertEquals(3, quadro.contarPedidos());
+    }
+
+    @Test
+    void deveAplicarLoteDeUmaVez() {
+        // When: 1 e 2 avançam juntos; a versão atrasada de 3 é ignorada
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(3L, "Mesa 1", PedidoStatus.ENTREGUE, 2, 10), PedidoStatus.PRONTO));
+        quadro.aoAlterarStatusEmLote(new StatusPedidosAlteradosEvento(List.of(
+                pedido(1L, "Mesa 1", PedidoStatus.PRONTO, 0, 6),
+                pedido(2L, "Mesa 2", PedidoStatus.PRONTO, 1, 6),
+                pedido(3L, "Mesa 1", PedidoStatus.PRONTO, 2, 6)), PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO));
+
+        // Then
+        assertEquals(List.of(1L, 2L), ids(quadro.listarPorStatus(List.of(PedidoStatus.PRONTO))));
+        assertEquals(2, quadro.contarPedidos());
+    }
+
+    @Test
+    void deveIgnorarEventoAtrasado() {
+        // Given
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(2L, "Mesa 2", PedidoStatus.ENTREGUE, 1, 10), PedidoStatus.PRONTO));
+
+        // When
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(2L, "Mesa 2", PedidoStatus.PRONTO, 1, 8), PedidoStatus.EM_PREPARO));
+
+        // Then
+        assertTrue(quadro.listarPorStatus(List.of(PedidoStatus.PRONTO)).stream()
+                .noneMatch(pedido -> pedido.getId().equals(2L)));
+        assertEquals(2, quadro.contarPedidos());
+    }
+
+    @Test
+    void deveApontarDivergenciasComOBanco() {
+        // Given
+        when(pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS)).thenReturn(List.of(
+                linha(1L, "Mesa 1", PedidoStatus.EM_PREPARO, 0),
+                linha(3L, "Mesa 1", PedidoStatus.PRONTO, 2),
+                linha(5L, "Mesa 4", PedidoStatus.RECEBIDO, 4)));
+
+        // When
+        List<Long> divergencias = quadro.verificar();
+        int recarregados = quadro.reconstruir();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 5L), divergencias);
+        assertEquals(3, recarregados);
+        assertTrue(quadro.verificar().isEmpty());
+    }
+
+    @Test
+    void deveManterIndicesConsistentesSobAtualizacoesConcorrentes() throws InterruptedException {
+        // Given
+        int threads = 8;
+        int pedidosPorThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<String> inconsistencias = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            long base = 100L + t * pedidosPorThread;
+            executor.submit(() -> {
+                largada.await();
+                for (long id = base; id < base + pedidosPorThread; id++) {
+                    quadro.aoCriarPedido(new PedidoCriadoEvento(pedido(id, "Mesa " + id, PedidoStatus.RECEBIDO, 10, 10)));
+                    quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                            pedido(id, "Mesa " + id, PedidoStatus.PRONTO, 10, 11), PedidoStatus.RECEBIDO));
+                    List<PedidoDTO> vistos = quadro.listarPorStatus(QuadroPedidosAtivos.STATUS_ATIVOS);
+                    if (vistos.stream().map(PedidoDTO::getId).distinct().count() != vistos.size()) {
+                        synchronized (inconsistencias) {
+                            inconsistencias.add("Pedido duplicado no quadro");
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertTrue(inconsistencias.isEmpty());
+        assertEquals(3 + threads * pedidosPorThread, quadro.contarPedidos());
+        assertEquals(threads * pedidosPorThread + 1, quadro.listarPorStatus(List.of(PedidoStatus.PRONTO)).size());
+        assertEquals(1, quadro.listarPorStatus(List.of(PedidoStatus.RECEBIDO)).size());
+    }
+
+    @Test
+    void deveRecarregarQuandoOutraInstanciaAlterouOBanco() {
+        // Given: outra instância criou o pedido 4 e entregou o 1, sem eventos neste nó
+        when(pedidoRepository.resumirPorStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS))
+                .thenReturn(new ResumoPedidosAtivos(3L, 0L, 9L));
+        when(pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS)).thenReturn(List.of(
+                linha(2L, "Mesa 2", PedidoStatus.EM_PREPARO, 1),
+                linha(3L, "Mesa 1", PedidoStatus.PRONTO, 2),
+                linha(4L, "Mesa 3", PedidoStatus.RECEBIDO, 3)));
+
+        // When
+        boolean recarregado = quadro.sincronizar();
+
+        // Then
+        assertTrue(recarregado);
+        assertEquals(List.of(2L, 3L, 4L), ids(quadro.listarPorStatus(QuadroPedidosAtivos.STATUS_ATIVOS)));
+        assertEquals(List.of(3L), ids(quadro.listarPorMesa("Mesa 1")));
+        assertEquals(1L, quadro.getRecargasPorDivergencia());
+    }
+
+    @Test
+    void naoDeveRecarregarQuandoOResumoDoBancoConfere() {
+        // Given: a mudança de status feita neste nó já chegou ao quadro pelo evento
+        quadro.aplicar(pedido(2L, "Mesa 2", PedidoStatus.PRONTO, 1, 5));
+        when(pedidoRepository.resumirPorStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS))
+                .thenReturn(new ResumoPedidosAtivos(3L, 5L, 6L));
+
+        // When
+        boolean recarregado = quadro.sincronizar();
+
+        // Then
+        assertFalse(recarregado);
+        verify(pedidoRepository, times(1)).findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS);
+        assertEquals(0L, quadro.getRecargasPorDivergencia());
+    }
+
+    @Test
+    void deveAplicarCommitLocalDuranteARecargaSemEsperarPelaConsulta() throws Exception {
+        // Given: enquanto a recarga consulta o banco, outra thread entrega o pedido 1, que a consulta ainda lê ativo
+        ExecutorService outraThread = Executors.newSingleThreadExecutor();
+        when(pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS)).thenAnswer(invocacao -> {
+            outraThread.submit(() -> quadro.aplicar(pedido(1L, "Mesa 1", PedidoStatus.ENTREGUE, 0, 5)))
+                    .get(5, TimeUnit.SECONDS);
+            return List.of(
+                    linha(1L, "Mesa 1", PedidoStatus.RECEBIDO, 0),
+                    linha(2L, "Mesa 2", PedidoStatus.EM_PREPARO, 1),
+                    linha(3L, "Mesa 1", PedidoStatus.PRONTO, 2));
+        });
+
+        // When
+        int recarregados = quadro.reconstruir();
+        outraThread.shutdown();
+
+        // Then
+        assertEquals(2, recarregados);
+        assertEquals(List.of(2L, 3L), ids(quadro.listarPorStatus(QuadroPedidosAtivos.STATUS_ATIVOS)));
+    }
+
+    @Test
+    void naoDeveTrazerDeVoltaPedidoEntregueDepoisDeUmaRecarga() {
+        // Given
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(2L, "Mesa 2", PedidoStatus.ENTREGUE, 1, 10), PedidoStatus.PRONTO));
+        when(pedidoRepository.findLinhasQuadroByStatusIn(QuadroPedidosAtivos.STATUS_ATIVOS)).thenReturn(List.of(
+                linha(1L, "Mesa 1", PedidoStatus.RECEBIDO, 0),
+                linha(3L, "Mesa 1", PedidoStatus.PRONTO, 2)));
+        quadro.reconstruir();
+
+        // When: o evento atrasado do pedido já entregue chega depois da recarga
+        quadro.aoAlterarStatus(new StatusPedidoAlteradoEvento(
+                pedido(2L, "Mesa 2", PedidoStatus.PRONTO, 1, 8), PedidoStatus.EM_PREPARO));
+
+        // Then
+        assertEquals(List.of(1L, 3L), ids(quadro.listarPorStatus(QuadroPedidosAtivos.STATUS_ATIVOS)));
+    }
+
+    private static PedidoLinhaQuadro linha(Long id, String mesa, PedidoStatus status, int minutos) {
+        LocalDateTime criadoEm = INICIO.plusMinutes(minutos);
+        return new PedidoLinhaQuadro(id, mesa, status, criadoEm, criadoEm, null, new BigDecimal("25.90"), 1,
+                0L, id * 10, 1L, "Hambúrguer", 1, new BigDecimal("25.90"), null);
+    }
+
+    // A versão acompanha o minuto da atualização: atualizações posteriores têm versões maiores
+    private static PedidoDTO pedido(Long id, String mesa, PedidoStatus status, int criadoEm, int atualizadoEm) {
+        PedidoDTO pedido = new PedidoDTO(id, mesa, new ArrayList<>(), status,
+                INICIO.plusMinutes(criadoEm), INICIO.plusMinutes(atualizadoEm), null);
+        pedido.setVersao((long) atualizadoEm);
+        return pedido;
+    }
+
+    private static List<Long> ids(List<PedidoDTO> pedidos) {
+        return pedidos.stream().map(PedidoDTO::getId).toList();
+    }
+}
@@ -0,0 +1,214 @@
+package com.cardapio.service;
+
+import com.cardapio.dto.PedidoDTO;
+import com.cardapio.dto.PedidoItemDTO;
+import com.cardapio.dto.RelatorioVendasDTO;
+import com.cardapio.dto.StatusLoteRequest;
+import com.cardapio.dto.StatusUpdateRequest;
+import com.cardapio.mapper.PedidoMapperImpl;
+import com.cardapio.model.ItemCardapio;
+import com.cardapio.model.PedidoStatus;
+import com.cardapio.sse.SseBroadcaster;
+import com.cardapio.support.ContadorSql;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Os contadores são atualizados antes do commit; cada passo dos testes confirma a própria transação.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PedidoService.class, PedidoMapperImpl.class, VendasConsolidadasService.class})
+class VendasConsolidadasServiceTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private VendasConsolidadasService vendasConsolidadasService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private SseBroadcaster sseBroadcaster;
+
+    @MockBean
+    private QuadroPedidosAtivos quadroPedidosAtivos;
+
+    private ItemCardapio hamburguer;
+    private ItemCardapio refrigerante;
+
+    @BeforeEach
+    void setUp() {
+        hamburguer = new ItemCardapio("Hambúrguer", "Delicioso hambúrguer", new BigDecimal("25.90"), null);
+        refrigerante = new ItemCardapio("Refrigerante", "Lata 350ml", new BigDecimal("5.55"), null);
+        entityManager.persist(hamburguer);
+        entityManager.persist(refrigerante);
+        confirmar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!TestTransaction.isActive()) {
+            TestTransaction.start();
+        }
+        entityManager.createQuery("DELETE FROM VendaItemDia").executeUpdate();
+        entityManager.createQuery("DELETE FROM VendaHora").executeUpdate();
+        entityManager.createQuery("DELETE FROM PedidoItem").executeUpdate();
+        entityManager.createQuery("DELETE FROM Pedido").executeUpdate();
+        entityManager.createQuery("DELETE FROM ItemCardapio").executeUpdate();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    @Test
+    void deveAtualizarContadoresAoCriarEEntregarPedidos() {
+        // Given
+        PedidoDTO entregue = criarPedido(2, 3);
+        criarPedido(1, 1);
+        entregar(entregue.getId());
+        LocalDate dia = entregue.getDataCriacao().toLocalDate();
+
+        // When
+        ContadorSql.limpar();
+        RelatorioVendasDTO relatorio = vendasConsolidadasService.relatorioDoDia(dia);
+
+        // Then
+        assertEquals(2, ContadorSql.selects());
+        assertEquals(2, relatorio.getTotalPedidos());
+        assertEquals(1, relatorio.getPedidosEntregues());
+        assertEquals(new BigDecimal("68.45"), relatorio.getTotalVendas());
+        assertEquals(Map.of(hamburguer.getId(), 2L, refrigerante.getId(), 3L), relatorio.getQuantidadesPorItem());
+        assertEquals(new BigDecimal("68.45"),
+                relatorio.getVendasPorHora().get(entregue.getDataCriacao().getHour()));
+    }
+
+    @Test
+    void deveEstornarVendaQuandoPedidoDeixaDeEstarEntregue() {
+        // Given
+        PedidoDTO pedido = criarPedido(1, 1);
+        entregar(pedido.getId());
+
+        // When
+        pedidoService.atualizarStatusPedido(pedido.getId(),
+                new StatusUpdateRequest(PedidoStatus.PRONTO, PedidoStatus.ENTREGUE));
+        confirmar();
+
+        // Then
+        RelatorioVendasDTO relatorio = vendasConsolidadasService.relatorioDoDia(pedido.getDataCriacao().toLocalDate());
+        assertEquals(1, relatorio.getTotalPedidos());
+        assertEquals(0, relatorio.getPedidosEntregues());
+        assertEquals(0, BigDecimal.ZERO.compareTo(relatorio.getTotalVendas()));
+        assertTrue(relatorio.getQuantidadesPorItem().isEmpty());
+    }
+
+    @Test
+    void deveEntregarLoteComUmaAtualizacaoPorHoraEPorItem() {
+        // Given: cinco pedidos da mesma hora, com os mesmos dois itens, prontos para entrega
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            PedidoDTO pedido = criarPedido(2, 1);
+            for (PedidoStatus status : List.of(PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO)) {
+                pedidoService.atualizarStatusPedido(pedido.getId(), new StatusUpdateRequest(status));
+            }
+            ids.add(pedido.getId());
+        }
+        confirmar();
+        LocalDate dia = entityManager.createQuery("SELECT MIN(p.dataCriacao) FROM Pedido p", LocalDateTime.class)
+                .getSingleResult().toLocalDate();
+        boolean mesmaHora = entityManager.createQuery(
+                "SELECT COUNT(DISTINCT HOUR(p.dataCriacao)) FROM Pedido p", Long.class).getSingleResult() == 1;
+
+        // When
+        ContadorSql.limpar();
+        pedidoService.atualizarStatusEmLote(new StatusLoteRequest(ids, PedidoStatus.ENTREGUE, PedidoStatus.PRONTO));
+        confirmar();
+
+        // Then: o UPDATE do lote mais uma linha de hora e duas de itens, cada uma garantida e somada uma vez
+        if (mesmaHora) {
+            assertEquals(3, ContadorSql.inserts());
+            assertEquals(1 + 3, ContadorSql.updates());
+        }
+        RelatorioVendasDTO relatorio = vendasConsolidadasService.relatorioDoDia(dia);
+        assertEquals(5, relatorio.getPedidosEntregues());
+        assertEquals(new BigDecimal("286.75"), relatorio.getTotalVendas());
+        assertEquals(Map.of(hamburguer.getId(), 10L, refrigerante.getId(), 5L), relatorio.getQuantidadesPorItem());
+    }
+
+    @Test
+    void deveReconstruirContadoresAPartirDoHistorico() {
+        // Given
+        PedidoDTO pedido = criarPedido(3, 2);
+        criarPedido(1, 0);
+        entregar(pedido.getId());
+        LocalDate dia = pedido.getDataCriacao().toLocalDate();
+        RelatorioVendasDTO incremental = vendasConsolidadasService.relatorioDoDia(dia);
+        entityManager.createQuery("UPDATE VendaHora v SET v.pedidos = 99, v.valorVendas = 0").executeUpdate();
+        entityManager.createQuery("DELETE FROM VendaItemDia").executeUpdate();
+        confirmar();
+
+        // When
+        vendasConsolidadasService.reconstruir(dia, dia.plusDays(1));
+        confirmar();
+
+        // Then
+        RelatorioVendasDTO reconstruido = vendasConsolidadasService.relatorioDoDia(dia);
+        assertEquals(incremental.getTotalPedidos(), reconstruido.getTotalPedidos());
+        assertEquals(incremental.getPedidosEntregues(), reconstruido.getPedidosEntregues());
+        assertEquals(0, incremental.getTotalVendas().compareTo(reconstruido.getTotalVendas()));
+        assertEquals(incremental.getQuantidadesPorItem(), reconstruido.getQuantidadesPorItem());
+    }
+
+    @Test
+    void deveRejeitarPeriodoInvertidoNaReconstrucao() {
+        LocalDate hoje = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class, () -> vendasConsolidadasService.reconstruir(hoje, hoje));
+        TestTransaction.flagForRollback();
+        TestTransaction.end();
+    }
+
+    private PedidoDTO criarPedido(int hamburgueres, int refrigerantes) {
+        List<PedidoItemDTO> itens = new ArrayList<>();
+        itens.add(new PedidoItemDTO(hamburguer.getId(), hamburgueres, hamburguer.getPreco()));
+        if (refrigerantes > 0) {
+            itens.add(new PedidoItemDTO(refrigerante.getId(), refrigerantes, refrigerante.getPreco()));
+        }
+        PedidoDTO criado = pedidoService.criarPedido(new PedidoDTO("Mesa 1", itens, null));
+        confirmar();
+        return criado;
+    }
+
+    // Percorre as transições permitidas até a entrega
+    private void entregar(Long id) {
+        for (PedidoStatus status : List.of(PedidoStatus.EM_PREPARO, PedidoStatus.PRONTO, PedidoStatus.ENTREGUE)) {
+            pedidoService.atualizarStatusPedido(id, new StatusUpdateRequest(status));
+            confirmar();
+        }
+    }
+
+    // Confirma a transação atual, disparando os ouvintes de antes do commit, e abre uma nova
+    private void confirmar() {
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        TestTransaction.start();
+    }
+}
@@ -0,0 +1,178 @@
+package com.cardapio.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga do broadcaster: centenas de assinantes simulados, parte deles travados
+ * no envio, não podem atrasar quem publica nem os assinantes saudáveis.
+ */
+class SseBroadcasterCargaTest {
+
+    private static final int ASSINANTES = 300;
+    private static final int TRAVADOS = 30;
+    private static final int EVENTOS = 150;
+
+    private SseBroadcaster broadcaster;
+    private final CountDownLatch liberarTravados = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = criarBroadcaster(8, 128);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarTravados.countDown();
+        broadcaster.encerrar();
+    }
+
+    @Test
+    void deveEntregarATodosOsSaudaveisEDesconectarOsTravados() throws InterruptedException {
+        // Given
+        List<EmitterSimulado> saudaveis = new ArrayList<>();
+        for (int i = 0; i < ASSINANTES; i++) {
+            boolean travado = i % (ASSINANTES / TRAVADOS) == 0;
+            EmitterSimulado emitter = new EmitterSimulado(travado ? liberarTravados : null);
+            broadcaster.conectar(CanalSse.COZINHA, null, null, emitter);
+            if (!travado) {
+                saudaveis.add(emitter);
+            }
+        }
+
+        // When
+        long inicio = System.nanoTime();
+        for (int i = 0; i < EVENTOS; i++) {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", i));
+        }
+        long duracaoPublicacaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Then
+        assertTrue(aguardar(() -> saudaveis.stream().allMatch(e -> e.recebidos.get() == EVENTOS), 10_000),
+                "Todos os assinantes saudáveis devem receber todos os eventos");
+        assertTrue(aguardar(() -> broadcaster.contarAssinantes(CanalSse.COZINHA) == ASSINANTES - TRAVADOS, 5_000),
+                "Assinantes travados devem ser desconectados");
+        assertEquals(TRAVADOS, broadcaster.getExpulsoes());
+        assertTrue(duracaoPublicacaoMs < 2_000,
+                "Publicar não pode bloquear em assinantes lentos, levou " + duracaoPublicacaoMs + " ms");
+    }
+
+    @Test
+    void deveDesconectarAssinanteCujaFilaEnche() {
+        // Given
+        ReflectionTestUtils.setField(broadcaster, "capacidadeFila", 4);
+        EmitterSimulado travado = new EmitterSimulado(liberarTravados);
+        broadcaster.conectar(CanalSse.GARCOM, null, null, travado);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            broadcaster.publicar(CanalSse.GARCOM, "pedido-pronto", Map.of("id", i));
+        }
+
+        // Then
+        assertEquals(0, broadcaster.contarAssinantes(CanalSse.GARCOM));
+        assertEquals(1, broadcaster.getExpulsoes());
+    }
+
+    @Test
+    void naoDeveDeixarTravadosEsgotaremOPoolDosSaudaveis() throws InterruptedException {
+        // Given: mais telas travadas que o limite do pool, ocupando todas as threads e a espera
+        broadcaster.encerrar();
+        broadcaster = criarBroadcaster(1, 2);
+        List<EmitterSimulado> travados = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            EmitterSimulado emitter = new EmitterSimulado(liberarTravados);
+            broadcaster.conectar(CanalSse.COZINHA, null, null, emitter);
+            travados.add(emitter);
+        }
+        broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", 0));
+        EmitterSimulado saudavel = new EmitterSimulado(null);
+        broadcaster.conectar(CanalSse.COZINHA, null, null, saudavel);
+
+        // When
+        for (int i = 1; i <= 3; i++) {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", i));
+        }
+
+        // Then
+        assertTrue(aguardar(() -> saudavel.recebidos.get() == 3, 5_000),
+                "O assinante saudável deve receber os eventos mesmo com o pool tomado por travados");
+        assertTrue(aguardar(() -> broadcaster.getExpulsoes() == 4, 5_000));
+        assertEquals(1, broadcaster.contarAssinantes(CanalSse.COZINHA));
+
+        // Quando as escritas presas desistem, as conexões são encerradas com erro e o limite volta ao normal
+        liberarTravados.countDown();
+        assertTrue(aguardar(() -> travados.stream().allMatch(e -> e.encerradoComErro.get()), 5_000));
+        assertTrue(aguardar(() -> broadcaster.getEnviosDescontados() == 0, 5_000));
+    }
+
+    private SseBroadcaster criarBroadcaster(int threadsEnvio, int threadsEnvioMax) {
+        SseBroadcaster novo = new SseBroadcaster();
+        ReflectionTestUtils.setField(novo, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(novo, "capacidadeFila", 256);
+        ReflectionTestUtils.setField(novo, "threadsEnvio", threadsEnvio);
+        ReflectionTestUtils.setField(novo, "threadsEnvioMax", threadsEnvioMax);
+        ReflectionTestUtils.setField(novo, "tempoMaximoEnvio", 200L);
+        ReflectionTestUtils.setField(novo, "intervaloHeartbeat", 60_000L);
+        novo.init();
+        return novo;
+    }
+
+    private boolean aguardar(java.util.function.BooleanSupplier condicao, long timeoutMs) throws InterruptedException {
+        long limite = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < limite) {
+            if (condicao.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return condicao.getAsBoolean();
+    }
+
+    // Emitter que conta os eventos recebidos; quando recebe um latch, trava no envio como uma tela sem rede
+    private static class EmitterSimulado extends SseEmitter {
+
+        private final CountDownLatch trava;
+        private final AtomicInteger recebidos = new AtomicInteger();
+        private final AtomicBoolean encerradoComErro = new AtomicBoolean();
+
+        EmitterSimulado(CountDownLatch trava) {
+            super(Long.MAX_VALUE);
+            this.trava = trava;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            if (trava != null) {
+                try {
+                    trava.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            recebidos.incrementAndGet();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            encerradoComErro.set(true);
+            super.completeWithError(ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.cardapio.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseBroadcasterHeartbeatTest {
+
+    private SseBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SseBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(broadcaster, "capacidadeFila", 64);
+        ReflectionTestUtils.setField(broadcaster, "threadsEnvio", 2);
+        ReflectionTestUtils.setField(broadcaster, "threadsEnvioMax", 4);
+        ReflectionTestUtils.setField(broadcaster, "tempoMaximoEnvio", 5000L);
+        ReflectionTestUtils.setField(broadcaster, "eventosRetidos", 16);
+        // O monitor não dispara durante o teste; o heartbeat é acionado manualmente
+        ReflectionTestUtils.setField(broadcaster, "intervaloHeartbeat", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "idadeMaximaConexao", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "tempoReconexao", 1000L);
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.encerrar();
+    }
+
+    @Test
+    void deveEnviarHeartbeatParaConexoesAtivas() throws InterruptedException {
+        // Given
+        EmitterGravador emitter = new EmitterGravador(false);
+        broadcaster.conectar(CanalSse.COZINHA, null, List::of, emitter);
+
+        // When
+        broadcaster.enviarHeartbeat();
+
+        // Then
+        aguardar(() -> !emitter.eventos.isEmpty());
+        assertTrue(emitter.eventos.get(0).contains(":heartbeat"));
+        assertEquals(1, broadcaster.contarAssinantes(CanalSse.COZINHA));
+        assertFalse(emitter.completo);
+    }
+
+    @Test
+    void deveRemoverConexaoMortaNoHeartbeat() throws InterruptedException {
+        // Given
+        EmitterGravador viva = new EmitterGravador(false);
+        EmitterGravador morta = new EmitterGravador(true);
+        broadcaster.conectar(CanalSse.GARCOM, null, List::of, viva);
+        broadcaster.conectar(CanalSse.GARCOM, null, List::of, morta);
+
+        // When
+        broadcaster.enviarHeartbeat();
+
+        // Then
+        aguardar(() -> broadcaster.getConexoesMortas() == 1);
+        assertEquals(1, broadcaster.getConexoesMortas());
+        assertEquals(1, broadcaster.contarAssinantes(CanalSse.GARCOM));
+    }
+
+    @Test
+    void deveEncerrarConexaoQueUltrapassouIdadeMaxima() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(broadcaster, "idadeMaximaConexao", 0L);
+        EmitterGravador emitter = new EmitterGravador(false);
+        broadcaster.conectar(CanalSse.COZINHA, null, List::of, emitter);
+        Thread.sleep(5);
+
+        // When
+        broadcaster.enviarHeartbeat();
+        broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", 1));
+
+        // Then
+        aguardar(() -> emitter.completo);
+        assertTrue(emitter.completo);
+        assertEquals(1, emitter.eventos.size());
+        assertTrue(emitter.eventos.get(0).contains("retry:1000"));
+        assertEquals(0, broadcaster.contarAssinantes(CanalSse.COZINHA));
+        assertEquals(1, broadcaster.getEncerradasPorIdade());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicao.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static class EmitterGravador extends SseEmitter {
+
+        private final boolean falhar;
+        private final List<String> eventos = new CopyOnWriteArrayList<>();
+        private volatile boolean completo;
+
+        EmitterGravador(boolean falhar) {
+            this.falhar = falhar;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (falhar) {
+                throw new IOException("Broken pipe");
+            }
+            eventos.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completo = true;
+        }
+    }
+}
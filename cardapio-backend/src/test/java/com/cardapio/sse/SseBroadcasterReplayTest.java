@@ -0,0 +1,149 @@
+package com.cardapio.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseBroadcasterReplayTest {
+
+    private SseBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SseBroadcaster();
+        ReflectionTestUtils.setField(broadcaster, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(broadcaster, "capacidadeFila", 64);
+        ReflectionTestUtils.setField(broadcaster, "threadsEnvio", 2);
+        ReflectionTestUtils.setField(broadcaster, "threadsEnvioMax", 4);
+        ReflectionTestUtils.setField(broadcaster, "tempoMaximoEnvio", 5000L);
+        ReflectionTestUtils.setField(broadcaster, "intervaloHeartbeat", 60_000L);
+        ReflectionTestUtils.setField(broadcaster, "eventosRetidos", 5);
+        broadcaster.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.encerrar();
+    }
+
+    @Test
+    void deveReenviarSomenteEventosPerdidos() throws InterruptedException {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", i));
+        }
+        long ultimoRecebido = broadcaster.getUltimoEventoId(CanalSse.COZINHA) - 2;
+
+        // When
+        EmitterGravador emitter = new EmitterGravador();
+        broadcaster.conectar(CanalSse.COZINHA, Long.toString(ultimoRecebido),
+                () -> fail("Não deveria enviar o snapshot"), emitter);
+        broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", 4));
+
+        // Then
+        List<String> eventos = emitter.aguardar(3);
+        assertTrue(eventos.get(0).contains("id:" + (ultimoRecebido + 1)));
+        assertTrue(eventos.get(0).contains("{\"id\":2}"));
+        assertTrue(eventos.get(1).contains("{\"id\":3}"));
+        assertTrue(eventos.get(2).contains("{\"id\":4}"));
+    }
+
+    @Test
+    void deveEnviarSnapshotQuandoLacunaExcedeHistorico() throws InterruptedException {
+        // Given
+        long ultimoRecebido = broadcaster.getUltimoEventoId(CanalSse.COZINHA);
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", i));
+        }
+
+        // When
+        EmitterGravador emitter = new EmitterGravador();
+        broadcaster.conectar(CanalSse.COZINHA, Long.toString(ultimoRecebido),
+                () -> List.of(Map.of("id", 10)), emitter);
+
+        // Then
+        List<String> eventos = emitter.aguardar(1);
+        assertTrue(eventos.get(0).contains("event:snapshot"));
+        assertTrue(eventos.get(0).contains("id:" + broadcaster.getUltimoEventoId(CanalSse.COZINHA)));
+        assertTrue(eventos.get(0).contains("[{\"id\":10}]"));
+    }
+
+    @Test
+    void naoDevePerderEventoPublicadoDuranteAConsultaDoSnapshot() throws InterruptedException {
+        // Given
+        long ultimoRecebido = broadcaster.getUltimoEventoId(CanalSse.COZINHA);
+        for (int i = 1; i <= 10; i++) {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", i));
+        }
+
+        // When: o pedido 11 é confirmado e publicado enquanto o snapshot é consultado, que já o enxerga
+        EmitterGravador emitter = new EmitterGravador();
+        broadcaster.conectar(CanalSse.COZINHA, Long.toString(ultimoRecebido), () -> {
+            broadcaster.publicar(CanalSse.COZINHA, "novo-pedido", Map.of("id", 11, "versao", 0));
+            return List.of(Map.of("id", 11, "versao", 0));
+        }, emitter);
+
+        // Then: o evento vem depois do snapshot, repetido; o cliente o ignora pela versão
+        List<String> eventos = emitter.aguardar(2);
+        assertEquals(2, eventos.size());
+        assertTrue(eventos.get(0).contains("event:snapshot"));
+        assertTrue(eventos.get(1).contains("\"id\":11"));
+        assertTrue(eventos.get(1).contains("id:" + broadcaster.getUltimoEventoId(CanalSse.COZINHA)));
+    }
+
+    @Test
+    void deveEnviarSnapshotQuandoIdNaoPertenceAEstaInstancia() throws InterruptedException {
+        // When
+        EmitterGravador emitter = new EmitterGravador();
+        broadcaster.conectar(CanalSse.GARCOM, "42", () -> List.of(), emitter);
+
+        // Then
+        assertTrue(emitter.aguardar(1).get(0).contains("event:snapshot"));
+    }
+
+    @Test
+    void naoDeveReenviarNadaParaConexaoNova() throws InterruptedException {
+        // Given
+        broadcaster.publicar(CanalSse.GARCOM, "pedido-pronto", Map.of("id", 1));
+
+        // When
+        EmitterGravador emitter = new EmitterGravador();
+        broadcaster.conectar(CanalSse.GARCOM, null, () -> fail("Não deveria enviar o snapshot"), emitter);
+        broadcaster.publicar(CanalSse.GARCOM, "pedido-pronto", Map.of("id", 2));
+
+        // Then
+        List<String> eventos = emitter.aguardar(1);
+        assertEquals(1, eventos.size());
+        assertTrue(eventos.get(0).contains("{\"id\":2}"));
+    }
+
+    private static class EmitterGravador extends SseEmitter {
+
+        private final List<String> eventos = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            eventos.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        List<String> aguardar(int quantidade) throws InterruptedException {
+            long limite = System.currentTimeMillis() + 5_000;
+            while (eventos.size() < quantidade && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            Thread.sleep(50); // Garante que nenhum evento extra chegou
+            return eventos;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.cardapio.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envolve o DataSource dos testes e conta as execuções enviadas ao banco (cada execute/executeQuery/
+ * executeUpdate/executeBatch é uma ida e volta), ao contrário do {@link ContadorSql}, que conta as
+ * instruções preparadas. Importar com {@code @Import(ContadorIdasAoBanco.class)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class ContadorIdasAoBanco implements BeanPostProcessor {
+
+    private static final Set<String> EXECUCOES =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final AtomicInteger IDAS = new AtomicInteger();
+
+    public static void limpar() {
+        IDAS.set(0);
+    }
+
+    public static int total() {
+        return IDAS.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    private static Object proxy(Class<?> tipo, Object alvo) {
+        return Proxy.newProxyInstance(ContadorIdasAoBanco.class.getClassLoader(), new Class<?>[]{tipo},
+                (instancia, metodo, argumentos) -> {
+                    if (alvo instanceof Statement && EXECUCOES.contains(metodo.getName())) {
+                        IDAS.incrementAndGet();
+                    }
+                    Object resultado;
+                    try {
+                        resultado = metodo.invoke(alvo, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (resultado instanceof Connection conexao && metodo.getReturnType() == Connection.class) {
+                        return proxy(Connection.class, conexao);
+                    }
+                    if (resultado instanceof Statement statement && Statement.class.isAssignableFrom(metodo.getReturnType())) {
+                        return proxy(metodo.getReturnType(), statement);
+                    }
+                    return resultado;
+                });
+    }
+}
@@ -0,0 +1,72 @@
+package com.cardapio.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Registra todas as instruções SQL preparadas pelo Hibernate durante os testes,
+ * permitindo verificar quantas consultas cada operação realmente executa.
+ */
+public class ContadorSql implements StatementInspector {
+
+    private static final List<String> INSTRUCOES = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (INSTRUCOES) {
+            INSTRUCOES.add(sql);
+        }
+        return sql;
+    }
+
+    public static void limpar() {
+        synchronized (INSTRUCOES) {
+            INSTRUCOES.clear();
+        }
+    }
+
+    public static int total() {
+        synchronized (INSTRUCOES) {
+            return INSTRUCOES.size();
+        }
+    }
+
+    public static List<String> instrucoes() {
+        synchronized (INSTRUCOES) {
+            return new ArrayList<>(INSTRUCOES);
+        }
+    }
+
+    // Consultas a tabelas; chamadas de sequência são contadas à parte
+    public static int selects() {
+        return contarPorPrefixo("select") - sequencias();
+    }
+
+    public static int sequencias() {
+        synchronized (INSTRUCOES) {
+            return (int) INSTRUCOES.stream()
+                    .map(sql -> sql.toLowerCase(Locale.ROOT))
+                    .filter(sql -> sql.contains("next value for") || sql.contains("nextval("))
+                    .count();
+        }
+    }
+
+    public static int inserts() {
+        return contarPorPrefixo("insert");
+    }
+
+    public static int updates() {
+        return contarPorPrefixo("update");
+    }
+
+    private static int contarPorPrefixo(String prefixo) {
+        synchronized (INSTRUCOES) {
+            return (int) INSTRUCOES.stream()
+                    .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith(prefixo))
+                    .count();
+        }
+    }
+}